@@ -15,12 +15,10 @@ import com.wynntils.core.consumers.functions.GenericFunction;
 import com.wynntils.core.consumers.functions.arguments.FunctionArguments;
 import com.wynntils.core.text.StyledText;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
-import java.util.stream.Stream;
 import net.minecraft.ChatFormatting;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
@@ -33,12 +31,7 @@ import net.minecraft.network.chat.MutableComponent;
 public class FunctionCommand extends Command {
     private static final SuggestionProvider<CommandSourceStack> FUNCTION_SUGGESTION_PROVIDER =
             (context, builder) -> SharedSuggestionProvider.suggest(
-                    Stream.concat(
-                            Managers.Function.getFunctions().stream().map(Function::getName),
-                            Managers.Function.getFunctions().stream()
-                                    .map(Function::getAliases)
-                                    .flatMap(Collection::stream)),
-                    builder);
+                    Managers.Function.getNameCompletions(builder.getRemaining()), builder);
 
     private static final SuggestionProvider<CommandSourceStack> CRASHED_FUNCTION_SUGGESTION_PROVIDER =
             (context, builder) -> SharedSuggestionProvider.suggest(
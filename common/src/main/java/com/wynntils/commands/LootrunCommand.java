@@ -14,6 +14,7 @@ import com.wynntils.core.components.Services;
 import com.wynntils.core.consumers.commands.Command;
 import com.wynntils.screens.base.WynntilsMenuScreenBase;
 import com.wynntils.screens.lootrunpaths.WynntilsLootrunPathsScreen;
+import com.wynntils.services.lootrunpaths.LootrunPathFileParser;
 import com.wynntils.services.lootrunpaths.type.LootrunNote;
 import com.wynntils.services.lootrunpaths.type.LootrunSaveResult;
 import com.wynntils.services.lootrunpaths.type.LootrunState;
@@ -40,8 +41,9 @@ import net.minecraft.world.entity.Entity;
 public class LootrunCommand extends Command {
     private static final SuggestionProvider<CommandSourceStack> LOOTRUN_SUGGESTION_PROVIDER =
             (context, suggestions) -> SharedSuggestionProvider.suggest(
-                    Stream.of(Services.LootrunPaths.LOOTRUNS.list())
-                            .map((name) -> name.replaceAll("\\.json$", ""))
+                    Stream.of(Services.LootrunPaths.LOOTRUNS.listFiles())
+                            .filter(LootrunPathFileParser::isLootrunFile)
+                            .map(LootrunPathFileParser::getLootrunName)
                             .map(StringArgumentType::escapeIfRequired),
                     suggestions);
 
@@ -93,6 +95,10 @@ public class LootrunCommand extends Command {
                                 .suggests(LOOTRUN_SUGGESTION_PROVIDER)
                                 .then(Commands.argument("new", StringArgumentType.string())
                                         .executes(this::renameLootrun))))
+                .then(Commands.literal("convert")
+                        .then(Commands.argument("name", StringArgumentType.string())
+                                .suggests(LOOTRUN_SUGGESTION_PROVIDER)
+                                .executes(this::convertLootrun)))
                 .then(Commands.literal("chest")
                         .then(Commands.literal("add")
                                 .then(Commands.argument("pos", BlockPosArgument.blockPos())
@@ -274,7 +280,7 @@ public class LootrunCommand extends Command {
 
     private int deleteLootrun(CommandContext<CommandSourceStack> context) {
         String name = StringArgumentType.getString(context, "name");
-        File file = new File(Services.LootrunPaths.LOOTRUNS, name + ".json");
+        File file = Services.LootrunPaths.getLootrunFile(name);
         if (!file.exists()) {
             context.getSource()
                     .sendFailure(Component.translatable("feature.wynntils.lootrunUtils.lootrunDoesntExist", name));
@@ -296,8 +302,9 @@ public class LootrunCommand extends Command {
     private int renameLootrun(CommandContext<CommandSourceStack> context) {
         String oldName = StringArgumentType.getString(context, "old");
         String newName = StringArgumentType.getString(context, "new");
-        File oldFile = new File(Services.LootrunPaths.LOOTRUNS, oldName + ".json");
-        File newFile = new File(Services.LootrunPaths.LOOTRUNS, newName + ".json");
+        File oldFile = Services.LootrunPaths.getLootrunFile(oldName);
+        String extension = oldFile.getName().substring(oldName.length());
+        File newFile = new File(Services.LootrunPaths.LOOTRUNS, newName + extension);
         if (!oldFile.exists()) {
             context.getSource()
                     .sendFailure(Component.translatable("feature.wynntils.lootrunUtils.lootrunDoesntExist", oldName));
@@ -316,6 +323,45 @@ public class LootrunCommand extends Command {
         return 0;
     }
 
+    private int convertLootrun(CommandContext<CommandSourceStack> context) {
+        String name = StringArgumentType.getString(context, "name");
+        File file = Services.LootrunPaths.getLootrunFile(name);
+        if (!file.exists()) {
+            context.getSource()
+                    .sendFailure(Component.translatable("feature.wynntils.lootrunUtils.lootrunDoesntExist", name));
+            return 0;
+        }
+
+        String format = file.getName().endsWith(LootrunPathFileParser.JSON_EXTENSION)
+                ? LootrunPathFileParser.BINARY_EXTENSION
+                : LootrunPathFileParser.JSON_EXTENSION;
+
+        switch (Services.LootrunPaths.convertLootrun(file)) {
+            case SAVED -> {
+                context.getSource()
+                        .sendSuccess(
+                                Component.translatable("feature.wynntils.lootrunUtils.lootrunConverted", name, format)
+                                        .withStyle(ChatFormatting.GREEN),
+                                false);
+                return 1;
+            }
+            case ERROR_SAVING -> {
+                context.getSource()
+                        .sendFailure(Component.translatable("feature.wynntils.lootrunUtils.errorSavingLootrun")
+                                .withStyle(ChatFormatting.RED));
+                return 0;
+            }
+            case ERROR_ALREADY_EXISTS -> {
+                context.getSource()
+                        .sendFailure(
+                                Component.translatable("feature.wynntils.lootrunUtils.errorSavingLootrunAlreadyExists")
+                                        .withStyle(ChatFormatting.RED));
+                return 0;
+            }
+        }
+        return 0;
+    }
+
     private int addChest(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
         BlockPos pos = BlockPosArgument.getSpawnablePos(context, "pos");
 
@@ -8,23 +8,28 @@ import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
 import com.wynntils.core.WynntilsMod;
-import com.wynntils.core.components.Handlers;
 import com.wynntils.core.components.Managers;
 import com.wynntils.core.components.Models;
 import com.wynntils.core.components.Services;
 import com.wynntils.core.consumers.commands.Command;
+import com.wynntils.core.mod.type.ProfilingCategory;
 import com.wynntils.core.net.ApiResponse;
 import com.wynntils.core.net.UrlId;
 import com.wynntils.services.athena.UpdateService;
 import com.wynntils.utils.FileUtils;
 import com.wynntils.utils.mc.McUtils;
+import com.wynntils.utils.type.TimingHistogram;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import net.minecraft.ChatFormatting;
@@ -74,7 +79,14 @@ public class WynntilsCommand extends Command {
                         .then(Commands.literal("profile")
                                 .then(Commands.literal("reset").executes(this::profileReset))
                                 .then(Commands.literal("showAnnotations").executes(this::profileShowAnnotations))
-                                .then(Commands.literal("showOverlays").executes(this::profileShowOverlays))))
+                                .then(Commands.literal("showCounters").executes(this::profileShowCounters))
+                                .then(Commands.literal("showEventListeners").executes(this::profileShowEventListeners))
+                                .then(Commands.literal("showEvents").executes(this::profileShowEvents))
+                                .then(Commands.literal("showFunctions").executes(this::profileShowFunctions))
+                                .then(Commands.literal("showOverlays").executes(this::profileShowOverlays))
+                                .then(Commands.literal("showWorldRenderers").executes(this::profileShowWorldRenderers))
+                                .then(Commands.literal("toggleEventListeners")
+                                        .executes(this::profileToggleEventListeners))))
                 .then(Commands.literal("discord").executes(this::discordLink))
                 .then(Commands.literal("donate").executes(this::donateLink))
                 .then(Commands.literal("help").executes(this::help))
@@ -88,8 +100,7 @@ public class WynntilsCommand extends Command {
     }
 
     private int profileReset(CommandContext<CommandSourceStack> context) {
-        Handlers.Item.resetProfiling();
-        Managers.Overlay.resetProfiling();
+        Managers.Profiling.reset();
         context.getSource()
                 .sendSuccess(
                         Component.translatable("commands.wynntils.debug.profile.cleared")
@@ -100,53 +111,141 @@ public class WynntilsCommand extends Command {
     }
 
     private int profileShowAnnotations(CommandContext<CommandSourceStack> context) {
-        Map<Class<?>, Integer> profilingTimes = Handlers.Item.getProfilingTimes();
-        Map<Class<?>, Integer> profilingCounts = Handlers.Item.getProfilingCounts();
+        showProfilingData(context, ProfilingCategory.ANNOTATOR);
 
-        showProfilingData(context, profilingTimes, profilingCounts);
+        return 1;
+    }
+
+    private int profileShowCounters(CommandContext<CommandSourceStack> context) {
+        StringBuilder resList = new StringBuilder();
+        Managers.Profiling.getCounters().entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> resList.append(
+                        "%9d  %s\n".formatted(entry.getValue().sum(), entry.getKey())));
+
+        context.getSource().sendSuccess(Component.literal(resList.toString()).withStyle(ChatFormatting.AQUA), false);
 
         return 1;
     }
 
     private int profileShowOverlays(CommandContext<CommandSourceStack> context) {
-        Map<Class<?>, Integer> profilingTimes = Managers.Overlay.getProfilingTimes();
-        Map<Class<?>, Integer> profilingCounts = Managers.Overlay.getProfilingCounts();
+        showProfilingData(context, ProfilingCategory.OVERLAY);
+
+        return 1;
+    }
+
+    private int profileShowWorldRenderers(CommandContext<CommandSourceStack> context) {
+        showProfilingData(context, ProfilingCategory.WORLD_RENDERER);
+
+        return 1;
+    }
 
-        showProfilingData(context, profilingTimes, profilingCounts);
+    private int profileShowFunctions(CommandContext<CommandSourceStack> context) {
+        showProfilingData(context, ProfilingCategory.FUNCTION);
 
         return 1;
     }
 
-    private void showProfilingData(
-            CommandContext<CommandSourceStack> context,
-            Map<Class<?>, Integer> profilingTimes,
-            Map<Class<?>, Integer> profilingCounts) {
+    private int profileShowEventListeners(CommandContext<CommandSourceStack> context) {
+        if (!Managers.Profiling.isEventListenerProfiling()) {
+            context.getSource()
+                    .sendFailure(Component.translatable("commands.wynntils.debug.profile.eventListeners.notEnabled"));
+            return 0;
+        }
+
+        showProfilingData(context, ProfilingCategory.EVENT_LISTENER);
+
+        return 1;
+    }
+
+    private int profileShowEvents(CommandContext<CommandSourceStack> context) {
+        Map<Class<?>, LongAdder> postedEvents = Managers.Profiling.getPostedEvents();
+        Map<Class<?>, LongAdder> skippedEvents = Managers.Profiling.getSkippedEvents();
+
+        Set<Class<?>> eventClasses = new HashSet<>(postedEvents.keySet());
+        eventClasses.addAll(skippedEvents.keySet());
+
+        StringBuilder resList = new StringBuilder();
+        eventClasses.stream()
+                .sorted(Comparator.comparingLong((Class<?> eventClass) -> getCount(postedEvents, eventClass)
+                                + getCount(skippedEvents, eventClass))
+                        .reversed())
+                .limit(10)
+                .forEach(eventClass -> resList.append("%9d posted, %9d skipped  %s\n"
+                        .formatted(
+                                getCount(postedEvents, eventClass),
+                                getCount(skippedEvents, eventClass),
+                                eventClass.getName().substring(eventClass.getPackageName().length() + 1))));
+
+        context.getSource().sendSuccess(Component.literal(resList.toString()).withStyle(ChatFormatting.AQUA), false);
+
+        return 1;
+    }
+
+    private static long getCount(Map<Class<?>, LongAdder> counters, Class<?> eventClass) {
+        LongAdder counter = counters.get(eventClass);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    private int profileToggleEventListeners(CommandContext<CommandSourceStack> context) {
+        boolean enabled = !Managers.Profiling.isEventListenerProfiling();
+        Managers.Profiling.setEventListenerProfiling(enabled);
+
+        context.getSource()
+                .sendSuccess(
+                        Component.translatable(
+                                        enabled
+                                                ? "commands.wynntils.debug.profile.eventListeners.enabled"
+                                                : "commands.wynntils.debug.profile.eventListeners.disabled")
+                                .withStyle(ChatFormatting.GREEN),
+                        false);
+
+        return 1;
+    }
+
+    private void showProfilingData(CommandContext<CommandSourceStack> context, ProfilingCategory category) {
+        Map<String, TimingHistogram> histograms = Managers.Profiling.getHistograms(category);
+
         StringBuilder resList = new StringBuilder();
-        profilingTimes.entrySet().stream()
-                .sorted(Map.Entry.<Class<?>, Integer>comparingByValue().reversed())
+        histograms.entrySet().stream()
+                .sorted(Comparator.comparingLong(
+                                (Map.Entry<String, TimingHistogram> entry) -> entry.getValue().getTotal())
+                        .reversed())
                 .limit(10)
                 .forEach(entry -> {
-                    int time = entry.getValue();
-                    int count = profilingCounts.get(entry.getKey());
-                    double average = (double) time / count;
-                    resList.append("%7d ms, %7d c, avg: %7.2f ms/c  %s\n"
-                            .formatted(time, count, average, entry.getKey().getSimpleName()));
+                    TimingHistogram histogram = entry.getValue();
+                    resList.append("%9.2f ms, %7d c, p50: %8.1f µs, p99: %8.1f µs, max: %8.1f µs  %s\n"
+                            .formatted(
+                                    histogram.getTotal() / 1_000_000d,
+                                    histogram.getCount(),
+                                    histogram.getPercentile(50) / 1_000d,
+                                    histogram.getPercentile(99) / 1_000d,
+                                    histogram.getMax() / 1_000d,
+                                    entry.getKey()));
                 });
 
         context.getSource().sendSuccess(Component.literal(resList.toString()).withStyle(ChatFormatting.AQUA), false);
 
-        int totalCount = profilingCounts.values().stream().reduce(0, Integer::sum);
-        int totalTime = profilingTimes.values().stream().reduce(0, Integer::sum);
-        double average = (double) totalTime / totalCount;
+        long totalCount = histograms.values().stream()
+                .mapToLong(TimingHistogram::getCount)
+                .sum();
+        long totalTime = histograms.values().stream()
+                .mapToLong(TimingHistogram::getTotal)
+                .sum();
+        double average = totalCount == 0 ? 0 : (double) totalTime / totalCount;
 
         context.getSource()
                 .sendSuccess(
-                        Component.translatable("commands.wynntils.debug.profile.total", totalTime, totalCount)
+                        Component.translatable(
+                                        "commands.wynntils.debug.profile.total",
+                                        "%.2f".formatted(totalTime / 1_000_000d),
+                                        totalCount)
                                 .withStyle(ChatFormatting.AQUA),
                         false);
         context.getSource()
                 .sendSuccess(
-                        Component.translatable("commands.wynntils.debug.profile.avg", average)
+                        Component.translatable(
+                                        "commands.wynntils.debug.profile.avg", "%.1f".formatted(average / 1_000d))
                                 .withStyle(ChatFormatting.AQUA),
                         false);
     }
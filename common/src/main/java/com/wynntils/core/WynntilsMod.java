@@ -16,6 +16,7 @@ import com.wynntils.core.components.Models;
 import com.wynntils.core.components.Service;
 import com.wynntils.core.components.Services;
 import com.wynntils.core.events.EventBusWrapper;
+import com.wynntils.core.events.EventListenerIndex;
 import com.wynntils.core.mod.event.WynntilsCrashEvent;
 import com.wynntils.core.mod.type.CrashType;
 import com.wynntils.utils.mc.McUtils;
@@ -27,9 +28,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.function.Consumer;
 import net.minecraft.SharedConstants;
 import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.IEventBus;
+import net.minecraftforge.eventbus.api.IEventBusInvokeDispatcher;
 import org.apache.commons.lang3.reflect.FieldUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,6 +51,7 @@ public final class WynntilsMod {
     private static boolean developmentBuild = false;
     private static boolean developmentEnvironment;
     private static IEventBus eventBus;
+    private static final EventListenerIndex eventListenerIndex = new EventListenerIndex();
     private static File modJar;
     private static boolean initCompleted = false;
     private static final Map<Class<? extends CoreComponent>, List<CoreComponent>> componentMap = new HashMap<>();
@@ -57,15 +62,37 @@ public final class WynntilsMod {
 
     public static void unregisterEventListener(Object object) {
         eventBus.unregister(object);
+        eventListenerIndex.removeListeners(object);
     }
 
     public static void registerEventListener(Object object) {
         eventBus.register(object);
+        eventListenerIndex.addListeners(object);
+    }
+
+    /**
+     * Registers a listener for a single event class (and its subclasses). The listener is called after all
+     * other listeners, even if the event has been canceled.
+     */
+    public static <T extends Event> void registerEventListener(Class<T> eventClass, Consumer<T> listener) {
+        eventBus.addListener(EventPriority.LOWEST, true, eventClass, listener);
+        eventListenerIndex.addListener(eventClass);
+    }
+
+    /**
+     * Returns whether any listener would receive an event of this class, if it was posted now.
+     */
+    public static boolean hasEventListeners(Class<? extends Event> eventClass) {
+        return eventListenerIndex.hasListeners(eventClass);
     }
 
     public static boolean postEvent(Event event) {
         try {
-            return eventBus.post(event);
+            // When profiling event listeners, every listener invocation is timed by the dispatcher
+            Managers.Profiling.recordEventPosted(event.getClass());
+
+            IEventBusInvokeDispatcher dispatcher = Managers.Profiling.getEventDispatcher();
+            return dispatcher == null ? eventBus.post(event) : eventBus.post(event, dispatcher);
         } catch (Throwable t) {
             handleExceptionInEventListener(t, event);
             return false;
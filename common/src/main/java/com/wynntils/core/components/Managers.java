@@ -12,6 +12,7 @@ import com.wynntils.core.json.JsonManager;
 import com.wynntils.core.keybinds.KeyBindManager;
 import com.wynntils.core.mod.ConnectionManager;
 import com.wynntils.core.mod.CrashReportManager;
+import com.wynntils.core.mod.ProfilingManager;
 import com.wynntils.core.mod.TickSchedulerManager;
 import com.wynntils.core.net.NetManager;
 import com.wynntils.core.net.UrlManager;
@@ -31,14 +32,15 @@ public final class Managers {
     public static final ConfigUpfixerManager ConfigUpfixer = new ConfigUpfixerManager();
     public static final ConnectionManager Connection = new ConnectionManager();
     public static final CrashReportManager CrashReport = new CrashReportManager();
-    public static final FunctionManager Function = new FunctionManager();
     public static final JsonManager Json = new JsonManager();
     public static final KeyBindManager KeyBind = new KeyBindManager();
     public static final NotificationManager Notification = new NotificationManager();
     public static final PersistedManager Persisted = new PersistedManager();
+    public static final ProfilingManager Profiling = new ProfilingManager();
 
     // Managers with dependencies, ordered alphabetically as far as possible
-    public static final OverlayManager Overlay = new OverlayManager(CrashReport);
+    public static final FunctionManager Function = new FunctionManager(Profiling);
+    public static final OverlayManager Overlay = new OverlayManager(CrashReport, Profiling);
     public static final FeatureManager Feature = new FeatureManager(Command, CrashReport, KeyBind, Overlay);
     public static final ConfigManager Config = new ConfigManager(ConfigUpfixer, Json, Feature, Overlay);
     public static final NetManager Net = new NetManager(Url);
@@ -9,7 +9,9 @@ import com.wynntils.core.consumers.features.Translatable;
 import com.wynntils.core.consumers.functions.arguments.FunctionArguments;
 import java.lang.reflect.ParameterizedType;
 import java.util.List;
+import java.util.Optional;
 import net.minecraft.client.resources.language.I18n;
+import net.minecraftforge.eventbus.api.Event;
 
 public abstract class Function<T> implements Translatable {
     private final String name;
@@ -35,6 +37,15 @@ public abstract class Function<T> implements Translatable {
         return List.of();
     }
 
+    /**
+     * Returns the events that are posted when the value of this function can change.
+     * Templates only using functions with dependencies can reuse their last calculated value until
+     * one of these events is posted. An empty optional means that the value can change at any time.
+     */
+    public Optional<List<Class<? extends Event>>> getDependencies() {
+        return Optional.empty();
+    }
+
     @Override
     public String getTranslatedName() {
         return getTranslation("name");
@@ -6,12 +6,16 @@ package com.wynntils.core.consumers.functions;
 
 import com.wynntils.core.WynntilsMod;
 import com.wynntils.core.components.Manager;
+import com.wynntils.core.components.Managers;
 import com.wynntils.core.consumers.functions.arguments.FunctionArguments;
 import com.wynntils.core.consumers.functions.arguments.parser.ArgumentParser;
 import com.wynntils.core.consumers.functions.expressions.Expression;
 import com.wynntils.core.consumers.functions.expressions.parser.ExpressionParser;
+import com.wynntils.core.consumers.functions.templates.Template;
 import com.wynntils.core.consumers.functions.templates.parser.TemplateParser;
+import com.wynntils.core.mod.ProfilingManager;
 import com.wynntils.core.mod.type.CrashType;
+import com.wynntils.core.mod.type.ProfilingCategory;
 import com.wynntils.core.text.StyledText;
 import com.wynntils.functions.CharacterFunctions;
 import com.wynntils.functions.CombatFunctions;
@@ -39,21 +43,53 @@ import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import net.minecraft.ChatFormatting;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.MutableComponent;
+import net.minecraftforge.eventbus.api.Event;
 
 /** Manage all built-in {@link Function}s */
 public final class FunctionManager extends Manager {
+    public static final long VOLATILE_TEMPLATE_STAMP = -1;
+
+    private static final int MAX_CACHED_TEMPLATES = 256;
+
     private final List<Function<?>> functions = new ArrayList<>();
     private final Set<Function<?>> crashedFunctions = new HashSet<>();
 
-    public FunctionManager() {
-        super(List.of());
+    // Lower case names and aliases, mapped to their function
+    private final Map<String, Function<?>> functionsByName = new HashMap<>();
+    // Lower case words of names and aliases (the whole name, and every part after an underscore),
+    // mapped to the names and aliases containing them, sorted for prefix lookups
+    private final NavigableMap<String, Set<String>> completionIndex = new TreeMap<>();
+
+    // The number of times each dependency event of any function has been posted
+    private final Map<Class<? extends Event>, Long> dependencyPostCounts = new ConcurrentHashMap<>();
+    // Increased every time a function's crashed state changes, as that changes its value as well
+    private long functionStateVersion = 0;
+
+    // Compiled templates, keyed by their raw template string, in least-recently-used order
+    private final Map<String, Template> templateCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Template> eldest) {
+            return size() > MAX_CACHED_TEMPLATES;
+        }
+    };
+
+    public FunctionManager(ProfilingManager profilingManager) {
+        super(List.of(profilingManager));
     }
 
     public List<Function<?>> getFunctions() {
@@ -63,10 +99,12 @@ public final class FunctionManager extends Manager {
     public void enableFunction(Function<?> function) {
         // try to recover, worst case we disable it again
         crashedFunctions.remove(function);
+        functionStateVersion++;
     }
 
     private void crashFunction(Function<?> function) {
         crashedFunctions.add(function);
+        functionStateVersion++;
     }
 
     public boolean isCrashed(Function<?> function) {
@@ -74,21 +112,22 @@ public final class FunctionManager extends Manager {
     }
 
     public Optional<Function<?>> forName(String functionName) {
-        for (Function<?> function : getFunctions()) {
-            if (hasName(function, functionName)) {
-                return Optional.of(function);
-            }
-        }
-
-        return Optional.empty();
+        return Optional.ofNullable(functionsByName.get(functionName.toLowerCase(Locale.ROOT)));
     }
 
-    private boolean hasName(Function<?> function, String name) {
-        if (function.getName().equalsIgnoreCase(name)) return true;
-        for (String alias : function.getAliases()) {
-            if (alias.equalsIgnoreCase(name)) return true;
-        }
-        return false;
+    /**
+     * Returns all function names and aliases that could complete the given input.
+     * A name matches if the input is a prefix of the name, or of any part of the name after an underscore.
+     */
+    public Set<String> getNameCompletions(String input) {
+        String prefix = input.toLowerCase(Locale.ROOT);
+
+        Set<String> completions = new LinkedHashSet<>();
+        completionIndex
+                .subMap(prefix, true, prefix + Character.MAX_VALUE, false)
+                .values()
+                .forEach(completions::addAll);
+        return completions;
     }
 
     private Optional<Object> getFunctionValueSafely(Function<?> function, FunctionArguments arguments) {
@@ -96,8 +135,10 @@ public final class FunctionManager extends Manager {
             return Optional.empty();
         }
 
+        long startTime = System.nanoTime();
         try {
             Object value = function.getValue(arguments);
+            Managers.Profiling.record(ProfilingCategory.FUNCTION, function.getName(), startTime);
             return Optional.ofNullable(value);
         } catch (Throwable throwable) {
             crashFunction(function);
@@ -210,11 +251,52 @@ public final class FunctionManager extends Manager {
 
     // region Template formatting
 
-    private String doFormat(String templateString) {
-        return TemplateParser.doFormat(templateString);
+    public StyledText[] doFormatLines(String templateString) {
+        String calculatedString = getCompiledTemplate(templateString).getValue();
+
+        // Turn escaped {} (`\[\` and `\]\`) back into real {}
+        calculatedString = calculatedString.replace("\\[\\", "{");
+        calculatedString = calculatedString.replace("\\]\\", "}");
+
+        return Arrays.stream(calculatedString.split("\n"))
+                .map(StyledText::fromString)
+                .toArray(StyledText[]::new);
     }
 
-    public StyledText[] doFormatLines(String templateString) {
+    /**
+     * Returns a stamp of everything the value of the template depends on. As long as the stamp does not change,
+     * calculating the template again would result in the same value, so the last calculated value can be reused.
+     * Templates that can change value at any time always return {@link #VOLATILE_TEMPLATE_STAMP}.
+     */
+    public long getTemplateStamp(String templateString) {
+        Template template = getCompiledTemplate(templateString);
+
+        if (template.isVolatile()) return VOLATILE_TEMPLATE_STAMP;
+
+        // Post counts only ever increase, so the sum changes whenever any of the dependencies is posted
+        long stamp = functionStateVersion;
+        for (Class<? extends Event> dependency : template.getDependencies()) {
+            stamp += dependencyPostCounts.getOrDefault(dependency, 0L);
+        }
+        return stamp;
+    }
+
+    public void clearTemplateCache() {
+        templateCache.clear();
+    }
+
+    private Template getCompiledTemplate(String templateString) {
+        Template template = templateCache.get(templateString);
+
+        if (template == null) {
+            template = compileTemplate(templateString);
+            templateCache.put(templateString, template);
+        }
+
+        return template;
+    }
+
+    private Template compileTemplate(String templateString) {
         StringBuilder resultBuilder = new StringBuilder();
 
         // Iterate though the string and escape characters
@@ -236,18 +318,10 @@ public final class FunctionManager extends Manager {
             resultBuilder.append(c);
         }
 
-        // Parse color codes before calculating the templates
+        // Parse color codes before compiling the templates
         String escapedTemplate = parseColorCodes(resultBuilder.toString());
 
-        String calculatedString = doFormat(escapedTemplate);
-
-        // Turn escaped {} (`\[\` and `\]\`) back into real {}
-        calculatedString = calculatedString.replace("\\[\\", "{");
-        calculatedString = calculatedString.replace("\\]\\", "}");
-
-        return Arrays.stream(calculatedString.split("\n"))
-                .map(StyledText::fromString)
-                .toArray(StyledText[]::new);
+        return TemplateParser.compile(escapedTemplate);
     }
 
     private String parseColorCodes(String toProcess) {
@@ -301,6 +375,13 @@ public final class FunctionManager extends Manager {
     private void registerFunction(Function<?> function) {
         functions.add(function);
 
+        registerName(function, function.getName());
+        for (String alias : function.getAliases()) {
+            registerName(function, alias);
+        }
+
+        function.getDependencies().ifPresent(dependencies -> dependencies.forEach(this::trackDependency));
+
         assert !function.getTranslatedName().startsWith("function.wynntils.")
                 : "Fix i18n name for " + function.getTranslatedName();
         assert !function.getDescription().startsWith("function.wynntils.")
@@ -312,6 +393,35 @@ public final class FunctionManager extends Manager {
         }
     }
 
+    private void registerName(Function<?> function, String name) {
+        String key = name.toLowerCase(Locale.ROOT);
+
+        // The first registered function keeps the name, like it did with the old linear lookup
+        Function<?> existing = functionsByName.putIfAbsent(key, function);
+        if (existing != null) {
+            WynntilsMod.error("Function name or alias \"" + name + "\" of " + function.getClass().getName()
+                    + " is already used by " + existing.getClass().getName());
+            assert false : "Duplicate function name or alias " + name;
+            return;
+        }
+
+        // Index the whole name, and every part after an underscore
+        int wordStart = 0;
+        do {
+            completionIndex
+                    .computeIfAbsent(key.substring(wordStart), k -> new LinkedHashSet<>())
+                    .add(name);
+            wordStart = key.indexOf('_', wordStart) + 1;
+        } while (wordStart > 0);
+    }
+
+    private <T extends Event> void trackDependency(Class<T> eventClass) {
+        if (dependencyPostCounts.putIfAbsent(eventClass, 0L) != null) return;
+
+        WynntilsMod.registerEventListener(
+                eventClass, event -> dependencyPostCounts.merge(eventClass, 1L, Long::sum));
+    }
+
     private void registerAllFunctions() {
         // Generic Functions
 
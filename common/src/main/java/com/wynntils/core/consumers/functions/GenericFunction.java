@@ -5,13 +5,17 @@
 package com.wynntils.core.consumers.functions;
 
 import com.wynntils.core.consumers.functions.arguments.FunctionArguments;
+import java.util.List;
+import java.util.Optional;
 import net.minecraft.client.resources.language.I18n;
+import net.minecraftforge.eventbus.api.Event;
 
 /**
  * Generic functions are functions that calculate a value, based on their arguments.
  * They differ from {@link Function} in that they do not have any game-related logic.
  *
  * Generic functions should always have required arguments, and should never have optional arguments.
+ * Since their value only depends on their arguments, they have no dependencies by default.
  */
 public abstract class GenericFunction<T> extends Function<T> {
     protected abstract FunctionArguments.RequiredArgumentBuilder getRequiredArgumentsBuilder();
@@ -21,6 +25,11 @@ public abstract class GenericFunction<T> extends Function<T> {
         return getRequiredArgumentsBuilder();
     }
 
+    @Override
+    public Optional<List<Class<? extends Event>>> getDependencies() {
+        return Optional.of(List.of());
+    }
+
     @Override
     public String getTranslation(String keySuffix) {
         return I18n.get("function.wynntils.generic." + getTranslationKeyName() + "." + keySuffix);
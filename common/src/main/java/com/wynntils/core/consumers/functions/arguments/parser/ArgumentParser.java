@@ -10,12 +10,46 @@ import com.wynntils.core.consumers.functions.expressions.parser.ExpressionParser
 import com.wynntils.utils.type.ErrorOr;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
 public final class ArgumentParser {
     public static ErrorOr<FunctionArguments> parseArguments(
             FunctionArguments.Builder argumentsBuilder, String rawArgs) {
+        ErrorOr<List<Expression>> argumentExpressions = parseArgumentExpressions(rawArgs);
+
+        if (argumentExpressions.hasError()) {
+            return ErrorOr.error(argumentExpressions.getError());
+        }
+
+        return buildArguments(argumentsBuilder, argumentExpressions.getValue());
+    }
+
+    // Parses the raw argument string into expressions, without calculating them.
+    // This allows the parsed expressions to be reused, and calculated each time the arguments are needed.
+    // A missing or empty argument string results in an empty list.
+    public static ErrorOr<List<Expression>> parseArgumentExpressions(String rawArgs) {
         if (rawArgs == null || rawArgs.isEmpty()) {
+            return ErrorOr.of(List.of());
+        }
+
+        // 1, Split arguments and parse them as expressions
+        List<Expression> expressions = new ArrayList<>();
+        for (String argument : splitArguments(rawArgs)) {
+            ErrorOr<Expression> expression = ExpressionParser.tryParse(argument.trim());
+
+            // 2, If any of the expressions failed to parse, return the error
+            if (expression.hasError()) {
+                return ErrorOr.error(expression.getError());
+            }
+
+            expressions.add(expression.getValue());
+        }
+
+        return ErrorOr.of(List.copyOf(expressions));
+    }
+
+    public static ErrorOr<FunctionArguments> buildArguments(
+            FunctionArguments.Builder argumentsBuilder, List<Expression> argumentExpressions) {
+        if (argumentExpressions.isEmpty()) {
             // 1, If there are no arguments, return early.
             if (argumentsBuilder.getArgumentCount() == 0) {
                 return argumentsBuilder.buildWithValues(List.of());
@@ -30,35 +64,21 @@ public final class ArgumentParser {
             }
         }
 
-        // 1, Split arguments and parse them as expressions
-        List<ErrorOr<Expression>> parts = splitArguments(rawArgs).stream()
-                .map(String::trim)
-                .map(ExpressionParser::tryParse)
-                .toList();
-
-        Optional<ErrorOr<Expression>> optionalError =
-                parts.stream().filter(ErrorOr::hasError).findFirst();
-
-        // 2, If any of the expressions failed to parse, return the error
-        if (optionalError.isPresent()) {
-            return ErrorOr.error(optionalError.get().getError());
-        }
-
         // 3, Calculate the expressions
-        List<ErrorOr<Object>> calculatedExpressions =
-                parts.stream().map(ErrorOr::getValue).map(Expression::calculate).toList();
+        List<Object> values = new ArrayList<>(argumentExpressions.size());
+        for (Expression expression : argumentExpressions) {
+            ErrorOr<Object> calculatedExpression = expression.calculate();
 
-        Optional<ErrorOr<Object>> optionalCalculationError =
-                calculatedExpressions.stream().filter(ErrorOr::hasError).findFirst();
+            // 4, If any of the expressions failed to calculate, return the error
+            if (calculatedExpression.hasError()) {
+                return ErrorOr.error(calculatedExpression.getError());
+            }
 
-        // 4, If any of the expressions failed to calculate, return the error
-        if (optionalCalculationError.isPresent()) {
-            return ErrorOr.error(optionalCalculationError.get().getError());
+            values.add(calculatedExpression.getValue());
         }
 
         // 5, Return the arguments as calculated expression values
-        return argumentsBuilder.buildWithValues(
-                calculatedExpressions.stream().map(ErrorOr::getValue).toList());
+        return argumentsBuilder.buildWithValues(values);
     }
 
     // This method handles splitting arguments in a "context-aware" way:
@@ -8,7 +8,9 @@ import com.google.common.collect.ImmutableMap;
 import com.wynntils.utils.type.ErrorOr;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
+import net.minecraftforge.eventbus.api.Event;
 
 public final class ConstantExpression extends Expression {
     private static final Map<Class<?>, Function<String, Optional<Object>>> CONSTANT_EXPRESSION_PARSERS =
@@ -35,6 +37,11 @@ public final class ConstantExpression extends Expression {
         return ErrorOr.of(value.toString());
     }
 
+    @Override
+    public boolean collectDependencies(Set<Class<? extends Event>> dependencies) {
+        return true;
+    }
+
     public static ErrorOr<Optional<Expression>> tryParse(String rawExpression) {
         for (Function<String, Optional<Object>> value : CONSTANT_EXPRESSION_PARSERS.values()) {
             Optional<Object> parsedValue = value.apply(rawExpression);
@@ -5,6 +5,8 @@
 package com.wynntils.core.consumers.functions.expressions;
 
 import com.wynntils.utils.type.ErrorOr;
+import java.util.Set;
+import net.minecraftforge.eventbus.api.Event;
 
 public abstract class Expression {
     protected final String rawExpression;
@@ -16,4 +18,10 @@ public abstract class Expression {
     public abstract ErrorOr<Object> calculate();
 
     public abstract ErrorOr<String> calculateFormattedString();
+
+    /**
+     * Adds the events that can change the value of this expression to the given set.
+     * Returns false if the value of this expression can change at any time.
+     */
+    public abstract boolean collectDependencies(Set<Class<? extends Event>> dependencies);
 }
@@ -9,9 +9,12 @@ import com.wynntils.core.consumers.functions.Function;
 import com.wynntils.core.consumers.functions.arguments.FunctionArguments;
 import com.wynntils.core.consumers.functions.arguments.parser.ArgumentParser;
 import com.wynntils.utils.type.ErrorOr;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import net.minecraftforge.eventbus.api.Event;
 
 public final class FunctionExpression extends Expression {
     // Function format:
@@ -27,15 +30,23 @@ public final class FunctionExpression extends Expression {
             Pattern.DOTALL);
 
     private final Function<?> function;
-    private final FunctionArguments arguments;
+    private final List<Expression> argumentExpressions;
+    // Arguments that only consist of constants are built once, and reused for every calculation
+    private final FunctionArguments constantArguments;
     private final boolean formatted;
     private final int decimals;
 
     private FunctionExpression(
-            String rawExpression, Function<?> function, FunctionArguments arguments, boolean formatted, int decimals) {
+            String rawExpression,
+            Function<?> function,
+            List<Expression> argumentExpressions,
+            FunctionArguments constantArguments,
+            boolean formatted,
+            int decimals) {
         super(rawExpression);
         this.function = function;
-        this.arguments = arguments;
+        this.argumentExpressions = argumentExpressions;
+        this.constantArguments = constantArguments;
 
         this.formatted = formatted;
         this.decimals = decimals;
@@ -43,12 +54,49 @@ public final class FunctionExpression extends Expression {
 
     @Override
     public ErrorOr<Object> calculate() {
-        return Managers.Function.getRawFunctionValue(function, arguments);
+        ErrorOr<FunctionArguments> arguments = getArguments();
+
+        if (arguments.hasError()) {
+            return ErrorOr.error(arguments.getError());
+        }
+
+        return Managers.Function.getRawFunctionValue(function, arguments.getValue());
     }
 
     @Override
     public ErrorOr<String> calculateFormattedString() {
-        return ErrorOr.of(Managers.Function.getStringFunctionValue(function, arguments, formatted, decimals));
+        ErrorOr<FunctionArguments> arguments = getArguments();
+
+        if (arguments.hasError()) {
+            return ErrorOr.error(arguments.getError());
+        }
+
+        return ErrorOr.of(
+                Managers.Function.getStringFunctionValue(function, arguments.getValue(), formatted, decimals));
+    }
+
+    @Override
+    public boolean collectDependencies(Set<Class<? extends Event>> dependencies) {
+        Optional<List<Class<? extends Event>>> functionDependencies = function.getDependencies();
+
+        if (functionDependencies.isEmpty()) return false;
+
+        dependencies.addAll(functionDependencies.get());
+
+        for (Expression argumentExpression : argumentExpressions) {
+            if (!argumentExpression.collectDependencies(dependencies)) return false;
+        }
+
+        return true;
+    }
+
+    private ErrorOr<FunctionArguments> getArguments() {
+        if (constantArguments != null) {
+            return ErrorOr.of(constantArguments);
+        }
+
+        // Argument values are stored in the argument instances, so we need a fresh builder for each calculation
+        return ArgumentParser.buildArguments(function.getArgumentsBuilder(), argumentExpressions);
     }
 
     // This method attempts to parse a function expression in the following ways:
@@ -60,6 +108,10 @@ public final class FunctionExpression extends Expression {
     //   4. The expression is a function expression, and the function name is a valid function, and the arguments are
     //      valid, in which case it returns the parsed expression.
     //
+    //   Arguments are parsed into expressions, but are only calculated when this expression is calculated.
+    //   This means that a parsed function expression can be reused, even if it has function arguments.
+    //   If all arguments are constants, they are calculated and validated during parsing.
+    //
     //   Arguments are valid if:
     //     1. The number of arguments is equal to the number of arguments the function expects.
     //     2. There is no argument part in the expression, in which case the function is called with the default
@@ -100,15 +152,28 @@ public final class FunctionExpression extends Expression {
 
         // Handle argument parsing
 
-        FunctionArguments.Builder argumentsBuilder = function.getArgumentsBuilder();
-
         String rawArguments = matcher.group("argument");
 
-        ErrorOr<FunctionArguments> value = ArgumentParser.parseArguments(argumentsBuilder, rawArguments);
+        ErrorOr<List<Expression>> argumentExpressions = ArgumentParser.parseArgumentExpressions(rawArguments);
+
+        if (argumentExpressions.hasError()) {
+            return ErrorOr.error(argumentExpressions.getError());
+        }
+
+        FunctionArguments constantArguments = null;
+
+        if (argumentExpressions.getValue().stream().allMatch(expression -> expression instanceof ConstantExpression)) {
+            ErrorOr<FunctionArguments> value =
+                    ArgumentParser.buildArguments(function.getArgumentsBuilder(), argumentExpressions.getValue());
+
+            if (value.hasError()) {
+                return ErrorOr.error(value.getError());
+            }
+
+            constantArguments = value.getValue();
+        }
 
-        return value.hasError()
-                ? ErrorOr.error(value.getError())
-                : ErrorOr.of(Optional.of(
-                        new FunctionExpression(rawExpression, function, value.getValue(), isFormatted, decimals)));
+        return ErrorOr.of(Optional.of(new FunctionExpression(
+                rawExpression, function, argumentExpressions.getValue(), constantArguments, isFormatted, decimals)));
     }
 }
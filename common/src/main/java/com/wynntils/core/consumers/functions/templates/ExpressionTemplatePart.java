@@ -7,9 +7,12 @@ package com.wynntils.core.consumers.functions.templates;
 import com.wynntils.core.consumers.functions.expressions.Expression;
 import com.wynntils.core.consumers.functions.expressions.parser.ExpressionParser;
 import com.wynntils.utils.type.ErrorOr;
+import java.util.Set;
+import net.minecraftforge.eventbus.api.Event;
 
 public class ExpressionTemplatePart extends TemplatePart {
     private final String expressionString;
+    private final ErrorOr<Expression> expression;
 
     public ExpressionTemplatePart(String part) {
         super(part);
@@ -19,17 +22,16 @@ public class ExpressionTemplatePart extends TemplatePart {
         }
 
         this.expressionString = this.part.substring(1, this.part.length() - 1);
+        this.expression = ExpressionParser.tryParse(this.expressionString);
     }
 
     @Override
     public String getValue() {
-        ErrorOr<Expression> parse = ExpressionParser.tryParse(this.expressionString);
-
-        if (parse.hasError()) {
-            return parse.getError();
+        if (expression.hasError()) {
+            return expression.getError();
         }
 
-        ErrorOr<String> calculatedValue = parse.getValue().calculateFormattedString();
+        ErrorOr<String> calculatedValue = expression.getValue().calculateFormattedString();
 
         if (calculatedValue.hasError()) {
             return calculatedValue.getError();
@@ -38,6 +40,14 @@ public class ExpressionTemplatePart extends TemplatePart {
         return calculatedValue.getValue();
     }
 
+    @Override
+    public boolean collectDependencies(Set<Class<? extends Event>> dependencies) {
+        // Parse errors are returned as-is, so they never change
+        if (expression.hasError()) return true;
+
+        return expression.getValue().collectDependencies(dependencies);
+    }
+
     @Override
     public String toString() {
         return "ExpressionTemplatePart{" + "expressionString='" + expressionString + "'}";
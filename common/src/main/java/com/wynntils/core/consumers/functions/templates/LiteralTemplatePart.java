@@ -4,6 +4,9 @@
  */
 package com.wynntils.core.consumers.functions.templates;
 
+import java.util.Set;
+import net.minecraftforge.eventbus.api.Event;
+
 public class LiteralTemplatePart extends TemplatePart {
     public LiteralTemplatePart(String part) {
         super(part);
@@ -14,6 +17,11 @@ public class LiteralTemplatePart extends TemplatePart {
         return part;
     }
 
+    @Override
+    public boolean collectDependencies(Set<Class<? extends Event>> dependencies) {
+        return true;
+    }
+
     @Override
     public String toString() {
         return "LiteralTemplatePart{" + "part='" + part + "'}";
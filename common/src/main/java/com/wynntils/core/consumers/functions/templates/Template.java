@@ -0,0 +1,63 @@
+/*
+ * Copyright © Wynntils 2023.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.core.consumers.functions.templates;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import net.minecraftforge.eventbus.api.Event;
+
+/**
+ * A parsed info variable template.
+ * The template string is parsed into its parts (and expressions) only once,
+ * so the template can be calculated repeatedly without parsing it again.
+ *
+ * A template is volatile if any of its functions can change value at any time. Otherwise, its value can only
+ * change when one of its dependency events is posted.
+ */
+public final class Template {
+    private final List<TemplatePart> parts;
+    private final Set<Class<? extends Event>> dependencies;
+    private final boolean isVolatile;
+
+    public Template(List<TemplatePart> parts) {
+        this.parts = List.copyOf(parts);
+
+        Set<Class<? extends Event>> dependencies = new HashSet<>();
+        boolean isVolatile = false;
+        for (TemplatePart part : this.parts) {
+            if (!part.collectDependencies(dependencies)) {
+                isVolatile = true;
+                break;
+            }
+        }
+
+        this.dependencies = isVolatile ? Set.of() : Set.copyOf(dependencies);
+        this.isVolatile = isVolatile;
+    }
+
+    public String getValue() {
+        StringBuilder builder = new StringBuilder();
+
+        for (TemplatePart part : parts) {
+            builder.append(part.getValue());
+        }
+
+        return builder.toString();
+    }
+
+    public Set<Class<? extends Event>> getDependencies() {
+        return dependencies;
+    }
+
+    public boolean isVolatile() {
+        return isVolatile;
+    }
+
+    @Override
+    public String toString() {
+        return "Template{" + "parts=" + parts + "}";
+    }
+}
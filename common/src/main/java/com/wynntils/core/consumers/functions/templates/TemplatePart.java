@@ -4,6 +4,9 @@
  */
 package com.wynntils.core.consumers.functions.templates;
 
+import java.util.Set;
+import net.minecraftforge.eventbus.api.Event;
+
 /**
  * Represents a part of an info variable template.
  * A template part can be either a (string) literal or en expression that will be evaluated.
@@ -17,6 +20,12 @@ public abstract class TemplatePart {
 
     public abstract String getValue();
 
+    /**
+     * Adds the events that can change the value of this part to the given set.
+     * Returns false if the value of this part can change at any time.
+     */
+    public abstract boolean collectDependencies(Set<Class<? extends Event>> dependencies);
+
     @Override
     public abstract String toString();
 }
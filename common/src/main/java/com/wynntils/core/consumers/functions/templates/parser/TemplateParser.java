@@ -6,16 +6,18 @@ package com.wynntils.core.consumers.functions.templates.parser;
 
 import com.wynntils.core.consumers.functions.templates.ExpressionTemplatePart;
 import com.wynntils.core.consumers.functions.templates.LiteralTemplatePart;
+import com.wynntils.core.consumers.functions.templates.Template;
 import com.wynntils.core.consumers.functions.templates.TemplatePart;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public final class TemplateParser {
     public static String doFormat(String templateString) {
-        List<TemplatePart> parts = parseTemplate(templateString);
+        return compile(templateString).getValue();
+    }
 
-        return parts.stream().map(TemplatePart::getValue).collect(Collectors.joining());
+    public static Template compile(String templateString) {
+        return new Template(parseTemplate(templateString));
     }
 
     private static List<TemplatePart> parseTemplate(String templateString) {
@@ -59,7 +61,6 @@ public final class TemplateParser {
                 }
 
                 // We have a complete expression
-                String expression = templateString.substring(expressionContextStart + 1, i);
                 parts.add(new ExpressionTemplatePart(templateString.substring(expressionContextStart, i + 1)));
 
                 // Reset the expression context
@@ -8,6 +8,7 @@ import com.mojang.blaze3d.platform.Window;
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.wynntils.core.components.Managers;
 import com.wynntils.core.components.Models;
+import com.wynntils.core.consumers.functions.FunctionManager;
 import com.wynntils.core.persisted.Persisted;
 import com.wynntils.core.persisted.config.Config;
 import com.wynntils.core.text.StyledText;
@@ -34,6 +35,12 @@ public abstract class TextOverlay extends DynamicOverlay {
 
     private StyledText[] cachedLines = new StyledText[0];
 
+    // The template and template stamp cachedLines was calculated from
+    // If they are unchanged, and the overlay is not dirty, cachedLines can be reused
+    private String cachedTemplate = null;
+    private long cachedTemplateStamp = FunctionManager.VOLATILE_TEMPLATE_STAMP;
+    private boolean dirty = true;
+
     protected TextOverlay(OverlayPosition position, float width, float height) {
         super(position, width, height, 1);
     }
@@ -106,7 +113,20 @@ public abstract class TextOverlay extends DynamicOverlay {
     public void onTick(TickEvent event) {
         if (!Models.WorldState.onWorld()) return;
 
-        cachedLines = calculateTemplateValue(getTemplate());
+        String template = getTemplate();
+        long templateStamp = Managers.Function.getTemplateStamp(template);
+
+        if (!dirty
+                && templateStamp != FunctionManager.VOLATILE_TEMPLATE_STAMP
+                && templateStamp == cachedTemplateStamp
+                && template.equals(cachedTemplate)) {
+            return;
+        }
+
+        cachedLines = calculateTemplateValue(template);
+        cachedTemplate = template;
+        cachedTemplateStamp = templateStamp;
+        dirty = false;
     }
 
     protected StyledText[] calculateTemplateValue(String template) {
@@ -125,6 +145,14 @@ public abstract class TextOverlay extends DynamicOverlay {
 
     protected abstract String getPreviewTemplate();
 
+    @Override
+    protected void callOnConfigUpdate(Config<?> config) {
+        // Subclasses can use any config (e.g. the size) when calculating the template value
+        dirty = true;
+
+        super.callOnConfigUpdate(config);
+    }
+
     @Override
     protected void onConfigUpdate(Config<?> config) {}
 }
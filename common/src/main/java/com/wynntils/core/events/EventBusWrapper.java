@@ -11,6 +11,7 @@ import net.minecraftforge.eventbus.EventBus;
 import net.minecraftforge.eventbus.api.BusBuilder;
 import net.minecraftforge.eventbus.api.Event;
 import net.minecraftforge.eventbus.api.IEventBus;
+import net.minecraftforge.eventbus.api.IEventBusInvokeDispatcher;
 
 public final class EventBusWrapper extends EventBus {
     private EventBusWrapper(BusBuilderImpl busBuilder) {
@@ -25,8 +26,9 @@ public final class EventBusWrapper extends EventBus {
         }
     }
 
+    // post(Event) delegates to this method, so both ways of posting are checked
     @Override
-    public boolean post(Event event) {
+    public boolean post(Event event, IEventBusInvokeDispatcher wrapper) {
         Class<? extends Event> eventClass = event.getClass();
         EventThread threadAnnotation = eventClass.getDeclaredAnnotation(EventThread.class);
         String threadName = Thread.currentThread().getName();
@@ -51,6 +53,6 @@ public final class EventBusWrapper extends EventBus {
             }
         }
 
-        return super.post(event);
+        return super.post(event, wrapper);
     }
 }
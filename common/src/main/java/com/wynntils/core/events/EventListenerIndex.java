@@ -0,0 +1,113 @@
+/*
+ * Copyright © Wynntils 2023.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.core.events;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+
+/**
+ * Keeps track of which event classes currently have any listener on the event bus.
+ * This lets event sources skip creating events that nobody would receive.
+ * <p>
+ * The index has to be updated alongside every (un)registration on the bus.
+ */
+public final class EventListenerIndex {
+    // Number of listeners for each exact event class, as declared by the listener
+    private final Map<Class<?>, Integer> listenerCounts = new HashMap<>();
+    // The listened event classes of each registered object, as registering an object twice is a no-op
+    private final Map<Object, List<Class<?>>> registeredObjects = new IdentityHashMap<>();
+    // Resolved results, including listeners of super classes, are cleared whenever a listener is (un)registered
+    private final Map<Class<?>, Boolean> hasListenersCache = new ConcurrentHashMap<>();
+
+    public synchronized void addListeners(Object object) {
+        if (registeredObjects.containsKey(object)) return;
+
+        List<Class<?>> eventClasses = getListenedEventClasses(object.getClass());
+        registeredObjects.put(object, eventClasses);
+        eventClasses.forEach(this::incrementListenerCount);
+    }
+
+    public synchronized void removeListeners(Object object) {
+        List<Class<?>> eventClasses = registeredObjects.remove(object);
+        if (eventClasses == null) return;
+
+        for (Class<?> eventClass : eventClasses) {
+            listenerCounts.computeIfPresent(eventClass, (k, count) -> count == 1 ? null : count - 1);
+        }
+        hasListenersCache.clear();
+    }
+
+    public synchronized void addListener(Class<? extends Event> eventClass) {
+        incrementListenerCount(eventClass);
+    }
+
+    public boolean hasListeners(Class<? extends Event> eventClass) {
+        Boolean cached = hasListenersCache.get(eventClass);
+        if (cached != null) return cached;
+
+        synchronized (this) {
+            // A listener for a super class (or interface) of the event also receives it
+            boolean hasListeners =
+                    listenerCounts.keySet().stream().anyMatch(listened -> listened.isAssignableFrom(eventClass));
+            hasListenersCache.put(eventClass, hasListeners);
+            return hasListeners;
+        }
+    }
+
+    private void incrementListenerCount(Class<?> eventClass) {
+        listenerCounts.merge(eventClass, 1, Integer::sum);
+        hasListenersCache.clear();
+    }
+
+    // This mirrors how the event bus finds listener methods: every public instance method,
+    // which is annotated either in the class itself or in any of its super types
+    private static List<Class<?>> getListenedEventClasses(Class<?> clazz) {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        collectTypes(clazz, types);
+
+        List<Class<?>> eventClasses = new ArrayList<>();
+        for (Method method : clazz.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers())) continue;
+            if (method.getParameterCount() != 1) continue;
+
+            for (Class<?> type : types) {
+                if (isAnnotatedListener(type, method)) {
+                    eventClasses.add(method.getParameterTypes()[0]);
+                    break;
+                }
+            }
+        }
+
+        return eventClasses;
+    }
+
+    private static boolean isAnnotatedListener(Class<?> type, Method method) {
+        try {
+            return type.getDeclaredMethod(method.getName(), method.getParameterTypes())
+                    .isAnnotationPresent(SubscribeEvent.class);
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static void collectTypes(Class<?> clazz, Set<Class<?>> types) {
+        if (clazz == null || !types.add(clazz)) return;
+
+        collectTypes(clazz.getSuperclass(), types);
+        for (Class<?> interfaceClass : clazz.getInterfaces()) {
+            collectTypes(interfaceClass, types);
+        }
+    }
+}
@@ -14,6 +14,17 @@ public final class MixinHelper {
         return Managers.Connection.onServer();
     }
 
+    /**
+     * Checks whether anyone listens to events of this class. Mixins on hot paths should check this
+     * before creating an event, to avoid the allocation when the event would not be received.
+     */
+    public static boolean hasListeners(Class<? extends Event> eventClass) {
+        if (WynntilsMod.hasEventListeners(eventClass)) return true;
+
+        Managers.Profiling.recordEventSkipped(eventClass);
+        return false;
+    }
+
     public static void post(Event event) {
         if (!onWynncraft()) return;
         if (McUtils.player() == null) return;
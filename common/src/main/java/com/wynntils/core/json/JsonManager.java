@@ -32,6 +32,8 @@ import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -62,23 +64,45 @@ public final class JsonManager extends Manager {
     /**
      * Write a json object to a file, taking care to preserve the file against corruption since
      * it contains precious data.
+     * <p>
+     * The json is written to a temporary file first, which then replaces the file in one step, so the file is
+     * always complete. This can be safely called from any thread, as long as the same file is only written by
+     * one thread. Returns whether the file was saved.
      */
-    public void savePreciousJson(File jsonFile, JsonObject jsonObject) {
+    public boolean savePreciousJson(File jsonFile, JsonObject jsonObject) {
         FileUtils.mkdir(jsonFile.getParentFile());
 
-        if (jsonFile.exists()) {
-            File backupFile = new File(jsonFile.getPath() + ".bak");
-            // Remove old backup (if any), and move current json file to backup
-            FileUtils.deleteFile(backupFile);
-            FileUtils.moveFile(jsonFile, backupFile);
+        File tempFile = new File(jsonFile.getPath() + ".tmp");
+        try (FileOutputStream outputStream = new FileOutputStream(tempFile);
+                OutputStreamWriter fileWriter = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)) {
+            GSON.toJson(jsonObject, fileWriter);
+            fileWriter.flush();
+            outputStream.getFD().sync();
+        } catch (IOException e) {
+            WynntilsMod.error("Failed to save json file " + jsonFile, e);
+            FileUtils.deleteFile(tempFile);
+            return false;
         }
 
-        try (OutputStreamWriter fileWriter =
-                new OutputStreamWriter(new FileOutputStream(jsonFile), StandardCharsets.UTF_8)) {
-            GSON.toJson(jsonObject, fileWriter);
+        try {
+            if (jsonFile.exists()) {
+                // Keep the current json file as a backup
+                File backupFile = new File(jsonFile.getPath() + ".bak");
+                Files.copy(jsonFile.toPath(), backupFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            Files.move(
+                    tempFile.toPath(),
+                    jsonFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
         } catch (IOException e) {
             WynntilsMod.error("Failed to save json file " + jsonFile, e);
+            FileUtils.deleteFile(tempFile);
+            return false;
         }
+
+        return true;
     }
 
     /**
@@ -0,0 +1,159 @@
+/*
+ * Copyright © Wynntils 2023.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.core.mod;
+
+import com.wynntils.core.components.Manager;
+import com.wynntils.core.mod.type.ProfilingCategory;
+import com.wynntils.utils.type.TimingHistogram;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.IEventBusInvokeDispatcher;
+import net.minecraftforge.eventbus.api.IEventListener;
+
+/**
+ * Collects timings of overlays, annotators, functions, world renderers and (on demand) event listeners.
+ * <p>
+ * Timings are recorded with {@link System#nanoTime()} into a histogram per profiled component,
+ * as most components take well below a millisecond.
+ */
+public final class ProfilingManager extends Manager {
+    private final Map<ProfilingCategory, Map<String, TimingHistogram>> histograms =
+            new EnumMap<>(ProfilingCategory.class);
+
+    // Event listener names are derived from the listener's string representation, so they are cached
+    private final Map<IEventListener, String> listenerNames = new ConcurrentHashMap<>();
+    private final IEventBusInvokeDispatcher profilingDispatcher = this::invokeProfiled;
+
+    // Events are posted from several threads, so the counters have to be thread safe
+    private final Map<Class<?>, LongAdder> postedEvents = new ConcurrentHashMap<>();
+    private final Map<Class<?>, LongAdder> skippedEvents = new ConcurrentHashMap<>();
+    // Free-form counters, e.g. for cache hits or avoided work
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    // Timing every single listener invocation is not free, so this has to be turned on explicitly
+    private volatile boolean eventListenerProfiling = false;
+
+    public ProfilingManager() {
+        super(List.of());
+
+        for (ProfilingCategory category : ProfilingCategory.values()) {
+            histograms.put(category, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Records the time spent since {@code startTime}, which has to be a value from {@link System#nanoTime()}.
+     */
+    public void record(ProfilingCategory category, String name, long startTime) {
+        long timeSpent = System.nanoTime() - startTime;
+
+        histograms.get(category).computeIfAbsent(name, k -> new TimingHistogram()).record(timeSpent);
+    }
+
+    public Map<String, TimingHistogram> getHistograms(ProfilingCategory category) {
+        return Collections.unmodifiableMap(histograms.get(category));
+    }
+
+    public void recordEventPosted(Class<?> eventClass) {
+        postedEvents.computeIfAbsent(eventClass, k -> new LongAdder()).increment();
+    }
+
+    // Skipped events are events that were not even created, as nobody was listening to them
+    public void recordEventSkipped(Class<?> eventClass) {
+        skippedEvents.computeIfAbsent(eventClass, k -> new LongAdder()).increment();
+    }
+
+    public Map<Class<?>, LongAdder> getPostedEvents() {
+        return Collections.unmodifiableMap(postedEvents);
+    }
+
+    public Map<Class<?>, LongAdder> getSkippedEvents() {
+        return Collections.unmodifiableMap(skippedEvents);
+    }
+
+    public void incrementCounter(String name) {
+        counters.computeIfAbsent(name, k -> new LongAdder()).increment();
+    }
+
+    public void addToCounter(String name, long amount) {
+        counters.computeIfAbsent(name, k -> new LongAdder()).add(amount);
+    }
+
+    public Map<String, LongAdder> getCounters() {
+        return Collections.unmodifiableMap(counters);
+    }
+
+    public void reset() {
+        histograms.values().forEach(Map::clear);
+        listenerNames.clear();
+        postedEvents.clear();
+        skippedEvents.clear();
+        counters.clear();
+    }
+
+    public boolean isEventListenerProfiling() {
+        return eventListenerProfiling;
+    }
+
+    public void setEventListenerProfiling(boolean eventListenerProfiling) {
+        this.eventListenerProfiling = eventListenerProfiling;
+    }
+
+    /**
+     * Returns the dispatcher that should be used to post events, or null if listeners should be invoked directly.
+     */
+    public IEventBusInvokeDispatcher getEventDispatcher() {
+        return eventListenerProfiling ? profilingDispatcher : null;
+    }
+
+    private void invokeProfiled(IEventListener listener, Event event) {
+        // The priorities are part of the listener list as markers, they don't do anything
+        if (listener instanceof EventPriority) {
+            listener.invoke(event);
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            listener.invoke(event);
+        } finally {
+            record(
+                    ProfilingCategory.EVENT_LISTENER,
+                    listenerNames.computeIfAbsent(listener, ProfilingManager::getListenerName),
+                    startTime);
+        }
+    }
+
+    private static String getListenerName(IEventListener listener) {
+        // Annotated listeners are described as "ASM: <owner> <method><descriptor>"
+        String description = listener.toString();
+        if (!description.startsWith("ASM: ")) return description;
+
+        String[] parts = description.substring(5).split(" ");
+        if (parts.length < 2) return description;
+
+        String owner = parts[parts.length - 2];
+        String method = parts[parts.length - 1];
+
+        int hashIndex = owner.indexOf('@');
+        if (hashIndex != -1) {
+            owner = owner.substring(0, hashIndex);
+        }
+        owner = owner.substring(owner.lastIndexOf('.') + 1);
+
+        int descriptorIndex = method.indexOf('(');
+        if (descriptorIndex != -1) {
+            method = method.substring(0, descriptorIndex);
+        }
+
+        return owner + "#" + method;
+    }
+}
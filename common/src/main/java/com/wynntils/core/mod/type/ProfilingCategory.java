@@ -0,0 +1,23 @@
+/*
+ * Copyright © Wynntils 2023.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.core.mod.type;
+
+public enum ProfilingCategory {
+    ANNOTATOR("Item Annotator"),
+    EVENT_LISTENER("Event Listener"),
+    FUNCTION("Function"),
+    OVERLAY("Overlay"),
+    WORLD_RENDERER("World Renderer");
+
+    private final String name;
+
+    ProfilingCategory(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
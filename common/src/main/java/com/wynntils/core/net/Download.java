@@ -1,9 +1,12 @@
 /*
- * Copyright © Wynntils 2022.
+ * Copyright © Wynntils 2022-2023.
  * This file is released under AGPLv3. See LICENSE for full license details.
  */
 package com.wynntils.core.net;
 
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
 import com.wynntils.core.WynntilsMod;
 import com.wynntils.core.components.Managers;
 import com.wynntils.core.net.event.NetResultProcessedEvent;
@@ -13,17 +16,27 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
 import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import org.apache.commons.io.FileUtils;
 
 public class Download extends NetResult {
+    private static final String VALIDATORS_SUFFIX = ".validators";
+    private static final String PART_SUFFIX = ".part";
+
     private final File localFile;
+    private final String counterName;
 
     // Saved since we might need to get timestamps from the HttpResponse
     private CompletableFuture<HttpResponse<Path>> httpResponse = null;
@@ -31,11 +44,13 @@ public class Download extends NetResult {
     public Download(String desc, File localFile, NetResultProcessedEvent processedEvent) {
         super("DL:" + desc, null, processedEvent); // Only use cached file
         this.localFile = localFile;
+        this.counterName = getCounterName(localFile, processedEvent);
     }
 
     public Download(String desc, File localFile, HttpRequest request, NetResultProcessedEvent processedEvent) {
         super("DL:" + desc, request, processedEvent);
         this.localFile = localFile;
+        this.counterName = getCounterName(localFile, processedEvent);
     }
 
     public long getResponseTimestamp() {
@@ -61,6 +76,7 @@ public class Download extends NetResult {
         // try to re-download the file next time
         WynntilsMod.warn("Deleting cached file due to handling error: " + localFile);
         FileUtils.deleteQuietly(localFile);
+        FileUtils.deleteQuietly(getValidatorsFile());
     }
 
     @Override
@@ -70,19 +86,154 @@ public class Download extends NetResult {
             return CompletableFuture.supplyAsync(this::getFileInputStreamFromCache);
         } else {
             prepareForDownload();
-            return getDownloadInputStreamFuture().thenApply(response -> getFileInputStreamFromCache());
+            return getDownloadInputStreamFuture().thenApply(this::onDownloadCompleted);
         }
     }
 
     private CompletableFuture<HttpResponse<Path>> getDownloadInputStreamFuture() {
         CompletableFuture<HttpResponse<Path>> future =
-                Managers.Net.HTTP_CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofFile(localFile.toPath()));
+                Managers.Net.HTTP_CLIENT.sendAsync(getConditionalRequest(), getBodyHandler(localFile, getPartFile()));
 
         // We must save the response so we can get the timestamp
         this.httpResponse = future;
         return future;
     }
 
+    // Adds the validators of the cached file to the request, so the server can reply with 304 Not Modified
+    private HttpRequest getConditionalRequest() {
+        if (!localFile.exists()) return request;
+
+        Optional<JsonObject> validators = readValidators();
+        if (validators.isEmpty()) return request;
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request, (name, value) -> true);
+        if (validators.get().has("etag")) {
+            builder.header("If-None-Match", validators.get().get("etag").getAsString());
+        }
+        if (validators.get().has("lastModified")) {
+            builder.header("If-Modified-Since", validators.get().get("lastModified").getAsString());
+        }
+        return builder.build();
+    }
+
+    private InputStream onDownloadCompleted(HttpResponse<Path> response) {
+        ResponseOutcome outcome;
+        try {
+            outcome = applyResponse(response, localFile, getPartFile());
+        } catch (IOException e) {
+            WynntilsMod.error("Failed to move downloaded file to " + localFile, e);
+            FileUtils.deleteQuietly(getPartFile());
+            outcome = ResponseOutcome.FAILED;
+        }
+
+        switch (outcome) {
+            case NOT_MODIFIED -> {
+                Managers.Profiling.incrementCounter("Net not modified: " + counterName);
+                Managers.Profiling.addToCounter("Net bytes saved: " + counterName, localFile.length());
+            }
+            case REPLACED -> {
+                if (response.statusCode() == HttpURLConnection.HTTP_OK) {
+                    writeValidators(response.headers());
+                } else {
+                    FileUtils.deleteQuietly(getValidatorsFile());
+                }
+            }
+            case FAILED -> {
+                Managers.Profiling.incrementCounter("Net failed: " + counterName);
+                if (!localFile.exists()) {
+                    throw new UncheckedIOException(new IOException(
+                            "Download of " + localFile.getName() + " failed with status " + response.statusCode()));
+                }
+
+                WynntilsMod.warn("Download of " + localFile.getName() + " failed with status " + response.statusCode()
+                        + ", using the cached file");
+            }
+        }
+
+        return getFileInputStreamFromCache();
+    }
+
+    // A 304 response has no body, so the cached file is returned as the body instead. Any other body is downloaded
+    // to the part file, so the cached file stays usable until the response is known to be good.
+    public static HttpResponse.BodyHandler<Path> getBodyHandler(File localFile, File partFile) {
+        return responseInfo -> responseInfo.statusCode() == HttpURLConnection.HTTP_NOT_MODIFIED
+                ? HttpResponse.BodySubscribers.replacing(localFile.toPath())
+                : HttpResponse.BodySubscribers.ofFile(partFile.toPath());
+    }
+
+    /**
+     * Updates the cached file from the response of a request with {@link #getBodyHandler(File, File)}.
+     * Only a successful response replaces the cached file, the body of any other response is discarded.
+     */
+    public static ResponseOutcome applyResponse(HttpResponse<Path> response, File localFile, File partFile)
+            throws IOException {
+        int statusCode = response.statusCode();
+        if (statusCode == HttpURLConnection.HTTP_NOT_MODIFIED) return ResponseOutcome.NOT_MODIFIED;
+
+        if (statusCode < 200 || statusCode >= 300) {
+            FileUtils.deleteQuietly(partFile);
+            return ResponseOutcome.FAILED;
+        }
+
+        Files.move(
+                partFile.toPath(),
+                localFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        return ResponseOutcome.REPLACED;
+    }
+
+    // Downloads of an url id are counted by the id, as their file names can be shared by other downloads
+    private static String getCounterName(File localFile, NetResultProcessedEvent processedEvent) {
+        if (processedEvent instanceof NetResultProcessedEvent.ForUrlId forUrlId) {
+            return forUrlId.getUrlId().toString();
+        }
+
+        return localFile.getName();
+    }
+
+    private Optional<JsonObject> readValidators() {
+        File validatorsFile = getValidatorsFile();
+        if (!validatorsFile.exists()) return Optional.empty();
+
+        try {
+            String json = FileUtils.readFileToString(validatorsFile, StandardCharsets.UTF_8);
+            return Optional.of(JsonParser.parseString(json).getAsJsonObject());
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            WynntilsMod.warn("Ignoring broken validators of cached file " + localFile, e);
+            return Optional.empty();
+        }
+    }
+
+    private void writeValidators(HttpHeaders headers) {
+        Optional<String> etag = headers.firstValue("ETag");
+        Optional<String> lastModified = headers.firstValue("Last-Modified");
+
+        if (etag.isEmpty() && lastModified.isEmpty()) {
+            FileUtils.deleteQuietly(getValidatorsFile());
+            return;
+        }
+
+        JsonObject validators = new JsonObject();
+        etag.ifPresent(value -> validators.addProperty("etag", value));
+        lastModified.ifPresent(value -> validators.addProperty("lastModified", value));
+
+        try {
+            FileUtils.writeStringToFile(getValidatorsFile(), validators.toString(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            WynntilsMod.warn("Failed to save validators of cached file " + localFile, e);
+            FileUtils.deleteQuietly(getValidatorsFile());
+        }
+    }
+
+    private File getValidatorsFile() {
+        return new File(localFile.getPath() + VALIDATORS_SUFFIX);
+    }
+
+    private File getPartFile() {
+        return new File(localFile.getPath() + PART_SUFFIX);
+    }
+
     private InputStream getFileInputStreamFromCache() {
         try {
             return new FileInputStream(localFile);
@@ -94,11 +245,18 @@ public class Download extends NetResult {
     }
 
     private void prepareForDownload() {
-        FileUtils.deleteQuietly(localFile);
+        // The cached file is kept until the new one is downloaded, as it is still used if it was not modified
+        FileUtils.deleteQuietly(getPartFile());
         try {
             FileUtils.forceMkdirParent(localFile);
         } catch (IOException e) {
             WynntilsMod.error("Failed to create directories needed for " + localFile, e);
         }
     }
+
+    public enum ResponseOutcome {
+        REPLACED,
+        NOT_MODIFIED,
+        FAILED
+    }
 }
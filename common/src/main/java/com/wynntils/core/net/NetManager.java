@@ -9,6 +9,7 @@ import com.wynntils.core.WynntilsMod;
 import com.wynntils.core.components.Manager;
 import com.wynntils.core.components.Managers;
 import com.wynntils.core.net.event.NetResultProcessedEvent;
+import com.wynntils.utils.FileUtils;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -88,6 +89,9 @@ public final class NetManager extends Manager {
             return new Download(localFile.getName(), localFile, processedEvent);
         }
 
+        // The cached file is known to be outdated, so don't let the server revalidate it
+        FileUtils.deleteFile(localFile);
+
         return download(uri, localFile, processedEvent);
     }
 
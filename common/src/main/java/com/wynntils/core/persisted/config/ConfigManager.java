@@ -20,6 +20,7 @@ import com.wynntils.core.consumers.overlays.OverlayManager;
 import com.wynntils.core.json.JsonManager;
 import com.wynntils.core.persisted.Persisted;
 import com.wynntils.core.persisted.upfixers.ConfigUpfixerManager;
+import com.wynntils.mc.event.ClientStoppingEvent;
 import com.wynntils.utils.JsonUtils;
 import com.wynntils.utils.mc.McUtils;
 import java.io.File;
@@ -28,7 +29,13 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Stream;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
 import org.apache.commons.lang3.reflect.FieldUtils;
 
 public final class ConfigManager extends Manager {
@@ -37,10 +44,19 @@ public final class ConfigManager extends Manager {
     private static final File DEFAULT_CONFIG = new File(CONFIG_DIR, "default" + FILE_SUFFIX);
     private static final String OVERLAY_GROUPS_JSON_KEY = "overlayGroups";
     private static final Set<Config<?>> CONFIGS = new TreeSet<>();
+    private static final int SAVE_DELAY_TICKS = 10;
 
     private final File userConfig;
     private JsonObject configObject;
 
+    // All configs, including those of group overlays. Rebuilt when configs are added.
+    private List<Config<?>> configList = null;
+
+    private final ExecutorService saveExecutor = Executors.newSingleThreadExecutor();
+    private final Runnable writeConfigTask = this::writeConfig;
+    private boolean savePending = false;
+    private Future<?> lastWrite = CompletableFuture.completedFuture(null);
+
     public ConfigManager(
             ConfigUpfixerManager configUpfixerManager,
             JsonManager jsonManager,
@@ -92,11 +108,18 @@ public final class ConfigManager extends Manager {
 
         configurable.addConfigOptions(configs);
         CONFIGS.addAll(configs);
+        configList = null;
     }
 
     public void reloadConfiguration() {
+        // Make sure pending changes are on disk before reading the file again
+        flushConfig();
+
         configObject = Managers.Json.loadPreciousJson(userConfig);
         loadConfigOptions(true, true);
+
+        // Templates might have changed, so compiled templates need to be recompiled
+        Managers.Function.clearTemplateCache();
     }
 
     // Info: The purpose of initOverlayGroups is to use the config system in a way that is really "hacky".
@@ -134,6 +157,9 @@ public final class ConfigManager extends Manager {
             holder.getOverlays().forEach(overlay -> overlay.addConfigOptions(this.getConfigOptions(overlay)));
         }
 
+        // Group overlays might have been recreated, with new configs
+        configList = null;
+
         for (Config<?> config : getConfigList()) {
             // option hasn't been saved to config
             if (!configObject.has(config.getJsonName())) {
@@ -155,11 +181,13 @@ public final class ConfigManager extends Manager {
         }
     }
 
-    private static List<Config<?>> getConfigList() {
+    private List<Config<?>> getConfigList() {
+        if (configList != null) return configList;
+
         // This breaks the concept of "manager holds all config holders at all times". Instead we get the group
         // overlays' configs from the overlay instance itself, to save us some trouble.
 
-        return Stream.concat(
+        configList = Stream.concat(
                         CONFIGS.stream(),
                         Managers.Overlay.getOverlayGroups().stream()
                                 .map(OverlayGroupHolder::getOverlays)
@@ -167,17 +195,47 @@ public final class ConfigManager extends Manager {
                                 .map(Overlay::getConfigOptions)
                                 .flatMap(List::stream))
                 .toList();
+        return configList;
     }
 
     public void saveConfig() {
-        // create json object, with entry for each option of each container
+        // A config value has changed, so compiled templates might no longer be in use
+        Managers.Function.clearTemplateCache();
+
+        // Changes often come in bursts (like dragging a slider or an overlay), so wait for them to settle.
+        // Scheduling the same task again restarts the delay.
+        savePending = true;
+        Managers.TickScheduler.scheduleLater(writeConfigTask, SAVE_DELAY_TICKS);
+    }
+
+    @SubscribeEvent
+    public void onClientStopping(ClientStoppingEvent event) {
+        // A pending save would be lost, and the executor could be stopped in the middle of a write
+        flushConfig();
+        saveExecutor.shutdown();
+    }
+
+    // Writes pending changes now, and waits until they are on disk
+    private void flushConfig() {
+        writeConfig();
+
+        try {
+            lastWrite.get();
+        } catch (InterruptedException | ExecutionException e) {
+            WynntilsMod.error("Failed to wait for config file to be saved", e);
+        }
+    }
+
+    private void writeConfig() {
+        if (!savePending) return;
+        savePending = false;
+
+        // The json is built here, as config values are mutable and changed on this thread. Only the file is written
+        // in the background.
         JsonObject configJson = new JsonObject();
         for (Config<?> config : getConfigList()) {
             if (!config.valueChanged()) continue; // only save options that have been set by the user
-            Object value = config.getValue();
-
-            JsonElement configElement = Managers.Json.GSON.toJsonTree(value);
-            configJson.add(config.getJsonName(), configElement);
+            configJson.add(config.getJsonName(), Managers.Json.GSON.toJsonTree(config.getValue()));
         }
 
         // Also save upfixer data
@@ -188,18 +246,14 @@ public final class ConfigManager extends Manager {
         // Save overlay groups
         JsonObject overlayGroups = new JsonObject();
         for (OverlayGroupHolder holder : Managers.Overlay.getOverlayGroups()) {
-            JsonArray ids = new JsonArray();
-
-            holder.getOverlays().stream()
-                    .map(overlay -> ((DynamicOverlay) overlay).getId())
-                    .forEach(ids::add);
-
-            overlayGroups.add(holder.getConfigKey(), ids);
+            JsonArray idArray = new JsonArray();
+            holder.getOverlays().forEach(overlay -> idArray.add(((DynamicOverlay) overlay).getId()));
+            overlayGroups.add(holder.getConfigKey(), idArray);
         }
 
         configJson.add(OVERLAY_GROUPS_JSON_KEY, overlayGroups);
 
-        Managers.Json.savePreciousJson(userConfig, configJson);
+        lastWrite = saveExecutor.submit(() -> Managers.Json.savePreciousJson(userConfig, configJson));
     }
 
     private void saveDefaultConfig() {
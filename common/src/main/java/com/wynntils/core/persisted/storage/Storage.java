@@ -19,7 +19,7 @@ public class Storage<T> extends PersistedValue<T> {
 
     @Override
     public void touched() {
-        Managers.Storage.persist();
+        Managers.Storage.persist(this);
     }
 
     // This must only be called by StorageManager when restoring value from disk
@@ -6,6 +6,8 @@ package com.wynntils.core.persisted.storage;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
 import com.wynntils.core.WynntilsMod;
 import com.wynntils.core.components.Manager;
 import com.wynntils.core.components.Managers;
@@ -13,31 +15,58 @@ import com.wynntils.core.consumers.features.FeatureManager;
 import com.wynntils.core.json.JsonManager;
 import com.wynntils.core.mod.event.WynncraftConnectionEvent;
 import com.wynntils.core.persisted.Persisted;
+import com.wynntils.utils.FileUtils;
 import com.wynntils.utils.mc.McUtils;
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.reflect.Field;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import org.apache.commons.lang3.reflect.FieldUtils;
 
+/**
+ * Persists all storages of the user to disk.
+ * <p>
+ * The storage file is a snapshot of all storages. Only the storages that were touched since the last save are
+ * written, as a single line appended to a journal file next to it. On load, the journal is replayed on top of the
+ * snapshot. Once the journal grows too large, it is compacted into a new snapshot in the background.
+ * <p>
+ * Every journal line holds the full value of the storages it contains, so replaying a line more than once is
+ * harmless. A line that was only partially written before a crash is ignored.
+ */
 public final class StorageManager extends Manager {
     private static final long SAVE_INTERVAL = 10_000;
+    private static final long JOURNAL_COMPACT_SIZE = 512 * 1024;
 
     private static final File STORAGE_DIR = WynntilsMod.getModStorageDir("storage");
     private static final String FILE_SUFFIX = ".data.json";
+    private static final String JOURNAL_SUFFIX = ".journal";
     private final File userStorageFile;
+    private final File userJournalFile;
 
     private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(1);
     private final Map<String, Storage<?>> storages = new TreeMap<>();
+    private final Map<Storage<?>, String> storageNames = new HashMap<>();
     private final Map<Storage<?>, Type> storageTypes = new HashMap<>();
     private final Map<Storage<?>, Storageable> storageOwner = new HashMap<>();
+    private final Set<Storage<?>> dirtyStorages = ConcurrentHashMap.newKeySet();
+
+    // The storage json as it is on disk, with the journal applied
+    private JsonObject persistedJson = new JsonObject();
 
     private long lastPersisted;
     private boolean scheduledPersist;
@@ -47,6 +76,7 @@ public final class StorageManager extends Manager {
     public StorageManager(JsonManager jsonManager, FeatureManager feature) {
         super(List.of(jsonManager, feature));
         userStorageFile = new File(STORAGE_DIR, McUtils.mc().getUser().getUuid() + FILE_SUFFIX);
+        userJournalFile = new File(STORAGE_DIR, userStorageFile.getName() + JOURNAL_SUFFIX);
     }
 
     public void initComponents() {
@@ -61,6 +91,11 @@ public final class StorageManager extends Manager {
 
         storageInitialized = true;
 
+        // Start with an empty journal, a partially written line at its end would break the next append
+        if (userJournalFile.length() > 0) {
+            executor.execute(this::compactJournal);
+        }
+
         // We might have missed a persist call in between feature init and storage manager init
         persist();
     }
@@ -78,6 +113,7 @@ public final class StorageManager extends Manager {
             Storage<?> storage = (Storage<?>) FieldUtils.readField(field, owner, true);
             String jsonName = baseName + "." + field.getName();
             storages.put(jsonName, storage);
+            storageNames.put(storage, jsonName);
 
             Type valueType = Managers.Json.getJsonValueType(field);
             storageTypes.put(storage, valueType);
@@ -90,10 +126,17 @@ public final class StorageManager extends Manager {
     @SubscribeEvent
     public void onWynncraftDisconnect(WynncraftConnectionEvent.Disconnected event) {
         // Always save when disconnecting
-        writeToJson();
+        if (!storageInitialized) return;
+
+        executor.execute(this::writeToJournal);
     }
 
-    void persist() {
+    void persist(Storage<?> storage) {
+        dirtyStorages.add(storage);
+        persist();
+    }
+
+    private void persist() {
         // We cannot persist before the storage is initialized, or we will overwrite our storage
         if (!storageInitialized || scheduledPersist) return;
 
@@ -104,7 +147,7 @@ public final class StorageManager extends Manager {
                 () -> {
                     scheduledPersist = false;
                     lastPersisted = System.currentTimeMillis();
-                    writeToJson();
+                    writeToJournal();
                 },
                 delay,
                 TimeUnit.MILLISECONDS);
@@ -112,12 +155,14 @@ public final class StorageManager extends Manager {
     }
 
     private void readFromJson() {
-        JsonObject storageJson = Managers.Json.loadPreciousJson(userStorageFile);
+        persistedJson = Managers.Json.loadPreciousJson(userStorageFile);
+        readJournal(persistedJson);
+
         storages.forEach((jsonName, storage) -> {
-            if (!storageJson.has(jsonName)) return;
+            if (!persistedJson.has(jsonName)) return;
 
             // read value and update option
-            JsonElement jsonElem = storageJson.get(jsonName);
+            JsonElement jsonElem = persistedJson.get(jsonName);
             Object value = Managers.Json.GSON.fromJson(jsonElem, storageTypes.get(storage));
             storage.set(value);
 
@@ -126,14 +171,68 @@ public final class StorageManager extends Manager {
         });
     }
 
-    private void writeToJson() {
-        JsonObject storageJson = new JsonObject();
+    private void readJournal(JsonObject storageJson) {
+        if (!userJournalFile.exists()) return;
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(userJournalFile), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                JsonObject entry;
+                try {
+                    entry = JsonParser.parseString(line).getAsJsonObject();
+                } catch (JsonParseException | IllegalStateException e) {
+                    // Only the last line can be broken, if the game crashed while it was written
+                    WynntilsMod.warn("Ignoring broken entry in storage journal " + userJournalFile.getName());
+                    break;
+                }
+
+                entry.entrySet().forEach(e -> storageJson.add(e.getKey(), e.getValue()));
+            }
+        } catch (IOException e) {
+            WynntilsMod.error("Failed to read storage journal " + userJournalFile, e);
+        }
+    }
+
+    // Must only be called on the executor thread
+    private void writeToJournal() {
+        if (dirtyStorages.isEmpty()) return;
+
+        JsonObject entry = new JsonObject();
+        for (Storage<?> storage : List.copyOf(dirtyStorages)) {
+            // Remove before serializing, so a touch while serializing marks the storage as dirty again
+            dirtyStorages.remove(storage);
 
-        storages.forEach((jsonName, storage) -> {
             JsonElement jsonElem = Managers.Json.GSON.toJsonTree(storage.get(), storageTypes.get(storage));
-            storageJson.add(jsonName, jsonElem);
-        });
+            entry.add(storageNames.get(storage), jsonElem);
+        }
+
+        FileUtils.mkdir(STORAGE_DIR);
+
+        try (FileOutputStream out = new FileOutputStream(userJournalFile, true)) {
+            // The compact form of a json tree is always a single line
+            out.write((entry + "\n").getBytes(StandardCharsets.UTF_8));
+            out.getFD().sync();
+        } catch (IOException e) {
+            WynntilsMod.error("Failed to write storage journal " + userJournalFile, e);
+
+            // Try again with the next save
+            entry.keySet().forEach(jsonName -> dirtyStorages.add(storages.get(jsonName)));
+            return;
+        }
+
+        entry.entrySet().forEach(e -> persistedJson.add(e.getKey(), e.getValue()));
+
+        if (userJournalFile.length() >= JOURNAL_COMPACT_SIZE) {
+            compactJournal();
+        }
+    }
 
-        Managers.Json.savePreciousJson(userStorageFile, storageJson);
+    // Must only be called on the executor thread
+    private void compactJournal() {
+        // The journal is only removed once the new snapshot is safely in place
+        if (Managers.Json.savePreciousJson(userStorageFile, persistedJson)) {
+            FileUtils.deleteFile(userJournalFile);
+        }
     }
 }
@@ -4,6 +4,8 @@
  */
 package com.wynntils.core.text;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.wynntils.utils.colors.CustomColor;
 import java.util.Arrays;
 import java.util.Objects;
@@ -16,7 +18,9 @@ import net.minecraft.network.chat.Style;
 public final class PartStyle {
     private static final String STYLE_PREFIX = "§";
 
-    private final StyledTextPart owner;
+    // Styles are immutable and shared between parts, so equal styles are interned to a single instance
+    // The interner only holds weak references, so it is bounded by the styles that are still in use
+    private static final Interner<PartStyle> STYLE_INTERNER = Interners.newWeakInterner();
 
     private final CustomColor color;
     private final boolean obfuscated;
@@ -27,8 +31,12 @@ public final class PartStyle {
     private final ClickEvent clickEvent;
     private final HoverEvent hoverEvent;
 
+    private final int hashCode;
+
+    // The reconstructed Minecraft style is shared by all users of this (interned) style
+    private Style style;
+
     private PartStyle(
-            StyledTextPart owner,
             CustomColor color,
             boolean obfuscated,
             boolean bold,
@@ -37,7 +45,6 @@ public final class PartStyle {
             boolean italic,
             ClickEvent clickEvent,
             HoverEvent hoverEvent) {
-        this.owner = owner;
         this.color = color;
         this.obfuscated = obfuscated;
         this.bold = bold;
@@ -46,21 +53,25 @@ public final class PartStyle {
         this.italic = italic;
         this.clickEvent = clickEvent;
         this.hoverEvent = hoverEvent;
+
+        this.hashCode =
+                Objects.hash(color, bold, italic, underlined, strikethrough, obfuscated, clickEvent, hoverEvent);
     }
 
-    PartStyle(PartStyle partStyle, StyledTextPart owner) {
-        this.owner = owner;
-        this.color = partStyle.color;
-        this.obfuscated = partStyle.obfuscated;
-        this.bold = partStyle.bold;
-        this.strikethrough = partStyle.strikethrough;
-        this.underlined = partStyle.underlined;
-        this.italic = partStyle.italic;
-        this.clickEvent = partStyle.clickEvent;
-        this.hoverEvent = partStyle.hoverEvent;
+    private static PartStyle of(
+            CustomColor color,
+            boolean obfuscated,
+            boolean bold,
+            boolean strikethrough,
+            boolean underlined,
+            boolean italic,
+            ClickEvent clickEvent,
+            HoverEvent hoverEvent) {
+        return STYLE_INTERNER.intern(
+                new PartStyle(color, obfuscated, bold, strikethrough, underlined, italic, clickEvent, hoverEvent));
     }
 
-    static PartStyle fromStyle(Style style, StyledTextPart owner, Style parentStyle) {
+    static PartStyle fromStyle(Style style, Style parentStyle) {
         Style inheritedStyle;
 
         if (parentStyle == null) {
@@ -77,8 +88,7 @@ public final class PartStyle {
                     .withFont(style.getFont());
         }
 
-        return new PartStyle(
-                owner,
+        return of(
                 inheritedStyle.getColor() == null
                         ? CustomColor.NONE
                         : CustomColor.fromInt(inheritedStyle.getColor().getValue()),
@@ -91,7 +101,7 @@ public final class PartStyle {
                 inheritedStyle.getHoverEvent());
     }
 
-    public String asString(PartStyle previousStyle, StyleType type) {
+    public String asString(PartStyle previousStyle, StyleType type, StyledText parent) {
         // Rules of converting a Style to a String:
         // Every style is prefixed with a §.
         // 0. Every style string is fully qualified, meaning that it contains all the formatting, and reset if needed.
@@ -101,10 +111,10 @@ public final class PartStyle {
         //    Example: §#FF0000 or §1
         // 2. Formatting is converted the same way as in the Style class.
         // 3. Click events are wrapped in square brackets, and is represented as an id.
-        //    The parent of this style's owner is responsible for keeping track of click events.
+        //    The parent text is responsible for keeping track of click events.
         //    Example: §[1] -> (1st click event)
         // 4. Hover events are wrapped in angle brackets, and is represented as an id.
-        //    The parent of this style's owner is responsible for keeping track of hover events.
+        //    The parent text is responsible for keeping track of hover events.
         //    Example: §<1> -> (1st hover event)
 
         if (type == StyleType.NONE) return "";
@@ -167,7 +177,7 @@ public final class PartStyle {
                 styleString
                         .append(STYLE_PREFIX)
                         .append("[")
-                        .append(owner.getParent().addClickEvent(clickEvent))
+                        .append(parent.addClickEvent(clickEvent))
                         .append("]");
             }
 
@@ -176,7 +186,7 @@ public final class PartStyle {
                 styleString
                         .append(STYLE_PREFIX)
                         .append("<")
-                        .append(owner.getParent().addHoverEvent(hoverEvent))
+                        .append(parent.addHoverEvent(hoverEvent))
                         .append(">");
             }
         }
@@ -185,6 +195,17 @@ public final class PartStyle {
     }
 
     public Style getStyle() {
+        // Style is immutable, so racing threads at worst reconstruct an equal style
+        Style cachedStyle = style;
+        if (cachedStyle == null) {
+            cachedStyle = reconstructStyle();
+            style = cachedStyle;
+        }
+
+        return cachedStyle;
+    }
+
+    private Style reconstructStyle() {
         Style reconstructedStyle = Style.EMPTY
                 .withObfuscated(obfuscated)
                 .withBold(bold)
@@ -208,8 +229,7 @@ public final class PartStyle {
 
         CustomColor newColor = CustomColor.fromInt(color.getColor());
 
-        return new PartStyle(
-                owner, newColor, obfuscated, bold, strikethrough, underlined, italic, clickEvent, hoverEvent);
+        return of(newColor, obfuscated, bold, strikethrough, underlined, italic, clickEvent, hoverEvent);
     }
 
     public boolean isBold() {
@@ -233,31 +253,31 @@ public final class PartStyle {
     }
 
     public PartStyle withBold(boolean bold) {
-        return new PartStyle(owner, color, obfuscated, bold, strikethrough, underlined, italic, clickEvent, hoverEvent);
+        return of(color, obfuscated, bold, strikethrough, underlined, italic, clickEvent, hoverEvent);
     }
 
     public PartStyle withObfuscated(boolean obfuscated) {
-        return new PartStyle(owner, color, obfuscated, bold, strikethrough, underlined, italic, clickEvent, hoverEvent);
+        return of(color, obfuscated, bold, strikethrough, underlined, italic, clickEvent, hoverEvent);
     }
 
     public PartStyle withStrikethrough(boolean strikethrough) {
-        return new PartStyle(owner, color, obfuscated, bold, strikethrough, underlined, italic, clickEvent, hoverEvent);
+        return of(color, obfuscated, bold, strikethrough, underlined, italic, clickEvent, hoverEvent);
     }
 
     public PartStyle withUnderlined(boolean underlined) {
-        return new PartStyle(owner, color, obfuscated, bold, strikethrough, underlined, italic, clickEvent, hoverEvent);
+        return of(color, obfuscated, bold, strikethrough, underlined, italic, clickEvent, hoverEvent);
     }
 
     public PartStyle withItalic(boolean italic) {
-        return new PartStyle(owner, color, obfuscated, bold, strikethrough, underlined, italic, clickEvent, hoverEvent);
+        return of(color, obfuscated, bold, strikethrough, underlined, italic, clickEvent, hoverEvent);
     }
 
     public PartStyle withClickEvent(ClickEvent clickEvent) {
-        return new PartStyle(owner, color, obfuscated, bold, strikethrough, underlined, italic, clickEvent, hoverEvent);
+        return of(color, obfuscated, bold, strikethrough, underlined, italic, clickEvent, hoverEvent);
     }
 
     public PartStyle withHoverEvent(HoverEvent hoverEvent) {
-        return new PartStyle(owner, color, obfuscated, bold, strikethrough, underlined, italic, clickEvent, hoverEvent);
+        return of(color, obfuscated, bold, strikethrough, underlined, italic, clickEvent, hoverEvent);
     }
 
     private String tryConstructDifference(PartStyle oldStyle) {
@@ -313,6 +333,8 @@ public final class PartStyle {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         PartStyle partStyle = (PartStyle) o;
+        // Equal styles are usually the same interned instance, so this is mostly hit for different styles
+        if (hashCode != partStyle.hashCode) return false;
         return bold == partStyle.bold
                 && italic == partStyle.italic
                 && underlined == partStyle.underlined
@@ -325,7 +347,7 @@ public final class PartStyle {
 
     @Override
     public int hashCode() {
-        return Objects.hash(color, bold, italic, underlined, strikethrough, obfuscated, clickEvent, hoverEvent);
+        return hashCode;
     }
 
     public enum StyleType {
@@ -6,13 +6,11 @@ package com.wynntils.core.text;
 
 import com.google.common.collect.Iterables;
 import com.wynntils.utils.type.IterationDecision;
-import com.wynntils.utils.type.Pair;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.Deque;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.BiFunction;
@@ -21,67 +19,100 @@ import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import net.minecraft.network.chat.ClickEvent;
 import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.ComponentContents;
 import net.minecraft.network.chat.HoverEvent;
 import net.minecraft.network.chat.MutableComponent;
 import net.minecraft.network.chat.Style;
+import net.minecraft.network.chat.contents.LiteralContents;
 
 public final class StyledText implements Iterable<StyledTextPart> {
+    // Must be initialized before EMPTY
+    private static final int STYLE_TYPE_COUNT = PartStyle.StyleType.values().length;
+
     public static final StyledText EMPTY = new StyledText(List.of(), List.of(), List.of());
 
+    private static final ThreadLocal<ComponentWalkerStacks> COMPONENT_WALKER_STACKS =
+            ThreadLocal.withInitial(ComponentWalkerStacks::new);
+
     private final List<StyledTextPart> parts;
 
     private final List<ClickEvent> clickEvents;
     private final List<HoverEvent> hoverEvents;
 
+    // Parts are immutable, so the string representations only need to be calculated once
+    // Indexed by the ordinal of the style type
+    private final String[] cachedStrings = new String[STYLE_TYPE_COUNT];
+    // The hash code depends on the events, so it is reset if an event is added
+    private int cachedHashCode = 0;
+
     private StyledText(List<StyledTextPart> parts, List<ClickEvent> clickEvents, List<HoverEvent> hoverEvents) {
-        this.parts = parts.stream()
-                .filter(styledTextPart -> !styledTextPart.isEmpty())
-                .map(styledTextPart -> new StyledTextPart(styledTextPart, this))
-                .collect(Collectors.toList());
+        List<StyledTextPart> ownedParts = new ArrayList<>(parts.size());
+        for (StyledTextPart part : parts) {
+            if (part.isEmpty()) continue;
+
+            ownedParts.add(new StyledTextPart(part, this));
+        }
+
+        this.parts = ownedParts;
         this.clickEvents = new ArrayList<>(clickEvents);
         this.hoverEvents = new ArrayList<>(hoverEvents);
     }
 
     public static StyledText fromComponent(Component component) {
         List<StyledTextPart> parts = new ArrayList<>();
-        List<ClickEvent> clickEvents = new ArrayList<>();
-        List<HoverEvent> hoverEvents = new ArrayList<>();
 
         // Walk the component tree using DFS
         // Component#visit behaves weirdly, so we do it manually
         // Save the style of the parent component so we can inherit it
-        Deque<Pair<Component, Style>> deque = new LinkedList<>();
-
-        deque.add(new Pair<>(component, Style.EMPTY));
-
-        while (!deque.isEmpty()) {
-            Pair<Component, Style> currentPair = deque.pop();
-            Component current = currentPair.key();
-            Style parentStyle = currentPair.value();
-
-            // We use getContents here to get this and only this component's string.
-            String componentString =
-                    MutableComponent.create(current.getContents()).getString();
-
-            List<StyledTextPart> styledTextParts =
-                    StyledTextPart.fromCodedString(componentString, current.getStyle(), null, parentStyle);
-
-            // Only actual styles are inherited, string formatting codes are not
-            Style styleToFollowForChildren = current.getStyle().applyTo(parentStyle);
+        // The stacks are reused between calls on the same thread, and are always left empty
+        ComponentWalkerStacks stacks = COMPONENT_WALKER_STACKS.get();
+        Deque<Component> componentStack = stacks.components;
+        Deque<Style> parentStyleStack = stacks.parentStyles;
+
+        try {
+            componentStack.push(component);
+            parentStyleStack.push(Style.EMPTY);
+
+            while (!componentStack.isEmpty()) {
+                Component current = componentStack.pop();
+                Style parentStyle = parentStyleStack.pop();
+
+                // We use the contents here to get this and only this component's string.
+                String componentString = getContentsString(current.getContents());
+
+                // fromCodedString never returns empty parts
+                parts.addAll(
+                        StyledTextPart.fromCodedString(componentString, current.getStyle(), null, parentStyle));
+
+                // Only actual styles are inherited, string formatting codes are not
+                Style styleToFollowForChildren = current.getStyle().applyTo(parentStyle);
+
+                // Push the siblings in reverse, so the first sibling is visited next
+                List<Component> siblings = current.getSiblings();
+                for (int i = siblings.size() - 1; i >= 0; i--) {
+                    componentStack.push(siblings.get(i));
+                    parentStyleStack.push(styleToFollowForChildren);
+                }
+            }
+        } finally {
+            componentStack.clear();
+            parentStyleStack.clear();
+        }
 
-            List<Pair<Component, Style>> siblingPairs = current.getSiblings().stream()
-                    .map(sibling -> new Pair<>(sibling, styleToFollowForChildren))
-                    .collect(Collectors.toList());
+        return new StyledText(parts, List.of(), List.of());
+    }
 
-            Collections.reverse(siblingPairs);
-            siblingPairs.forEach(deque::addFirst);
+    private static String getContentsString(ComponentContents contents) {
+        // Literal contents (by far the most common) can be read directly
+        if (contents instanceof LiteralContents literalContents) {
+            return literalContents.text();
+        }
 
-            // Disallow empty parts
-            parts.addAll(
-                    styledTextParts.stream().filter(part -> !part.isEmpty()).toList());
+        if (contents == ComponentContents.EMPTY) {
+            return "";
         }
 
-        return new StyledText(parts, clickEvents, hoverEvents);
+        return MutableComponent.create(contents).getString();
     }
 
     public static StyledText fromString(String codedString) {
@@ -106,6 +137,15 @@ public final class StyledText implements Iterable<StyledTextPart> {
     // We don't want to expose the actual string to the outside world
     // If you need to do an operation with this string, implement it as a method
     public String getString(PartStyle.StyleType type) {
+        String cachedString = cachedStrings[type.ordinal()];
+        if (cachedString != null) return cachedString;
+
+        String string = calculateString(type);
+        cachedStrings[type.ordinal()] = string;
+        return string;
+    }
+
+    private String calculateString(PartStyle.StyleType type) {
         StringBuilder builder = new StringBuilder();
 
         PartStyle previousStyle = null;
@@ -599,6 +639,7 @@ public final class StyledText implements Iterable<StyledTextPart> {
         }
 
         clickEvents.add(clickEvent);
+        cachedHashCode = 0;
 
         return clickEvents.size();
     }
@@ -613,6 +654,7 @@ public final class StyledText implements Iterable<StyledTextPart> {
         }
 
         hoverEvents.add(hoverEvent);
+        cachedHashCode = 0;
 
         return hoverEvents.size();
     }
@@ -648,6 +690,16 @@ public final class StyledText implements Iterable<StyledTextPart> {
 
     @Override
     public int hashCode() {
-        return Objects.hash(parts, clickEvents, hoverEvents);
+        int hashCode = cachedHashCode;
+        if (hashCode == 0) {
+            hashCode = Objects.hash(parts, clickEvents, hoverEvents);
+            cachedHashCode = hashCode;
+        }
+        return hashCode;
+    }
+
+    private static final class ComponentWalkerStacks {
+        private final Deque<Component> components = new ArrayDeque<>();
+        private final Deque<Style> parentStyles = new ArrayDeque<>();
     }
 }
@@ -24,18 +24,16 @@ public final class StyledTextPart {
         this.parent = parent;
         this.text = text;
 
-        // Must be done last
-        this.style = PartStyle.fromStyle(style, this, parentStyle);
+        this.style = PartStyle.fromStyle(style, parentStyle);
     }
 
     StyledTextPart(StyledTextPart part, StyledText parent) {
-        this.text = part.text;
-        this.style = new PartStyle(part.style, this);
-        this.parent = parent;
+        // Styles are interned and immutable, so they can be shared between parts
+        this(part.text, part.style, parent);
     }
 
-    private StyledTextPart(StyledTextPart part, PartStyle style, StyledText parent) {
-        this.text = part.text;
+    private StyledTextPart(String text, PartStyle style, StyledText parent) {
+        this.text = text;
         this.style = style;
         this.parent = parent;
     }
@@ -47,6 +45,14 @@ public final class StyledTextPart {
         // When we have a style, but the text has formatting codes,
         // we need to apply the formatting codes to the style
         // This means that the actual style applies first; then the formatting codes
+
+        // Most component contents have no formatting codes at all, so skip the character walk for them
+        if (codedString.indexOf(ChatFormatting.PREFIX_CODE) == -1) {
+            if (codedString.isEmpty()) return List.of();
+
+            return List.of(new StyledTextPart(codedString, style, null, parentStyle));
+        }
+
         List<StyledTextPart> parts = new ArrayList<>();
 
         Style currentStyle = style;
@@ -54,7 +60,9 @@ public final class StyledTextPart {
 
         boolean nextIsFormatting = false;
 
-        for (char current : codedString.toCharArray()) {
+        for (int i = 0; i < codedString.length(); i++) {
+            char current = codedString.charAt(i);
+
             if (nextIsFormatting) {
                 nextIsFormatting = false;
 
@@ -77,7 +85,7 @@ public final class StyledTextPart {
 
                     // reset string
                     // style is not reset, because we want to keep the formatting
-                    currentString = new StringBuilder();
+                    currentString.setLength(0);
                 }
 
                 // Color formatting resets the style
@@ -110,7 +118,7 @@ public final class StyledTextPart {
     }
 
     public String getString(PartStyle previousStyle, PartStyle.StyleType type) {
-        return style.asString(previousStyle, type) + text;
+        return style.asString(previousStyle, type, parent) + text;
     }
 
     public StyledText getParent() {
@@ -122,7 +130,7 @@ public final class StyledTextPart {
     }
 
     public StyledTextPart withStyle(PartStyle style) {
-        return new StyledTextPart(this, style, parent);
+        return new StyledTextPart(text, style, parent);
     }
 
     public StyledTextPart withStyle(Function<PartStyle, PartStyle> function) {
@@ -134,15 +142,15 @@ public final class StyledTextPart {
     }
 
     StyledTextPart asNormalized() {
-        return new StyledTextPart(WynnUtils.normalizeBadString(text), style.getStyle(), parent, null);
+        return new StyledTextPart(WynnUtils.normalizeBadString(text), style, parent);
     }
 
     StyledTextPart stripLeading() {
-        return new StyledTextPart(text.stripLeading(), style.getStyle(), parent, null);
+        return new StyledTextPart(text.stripLeading(), style, parent);
     }
 
     StyledTextPart stripTrailing() {
-        return new StyledTextPart(text.stripTrailing(), style.getStyle(), parent, null);
+        return new StyledTextPart(text.stripTrailing(), style, parent);
     }
 
     boolean isEmpty() {
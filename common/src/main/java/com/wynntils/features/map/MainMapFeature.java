@@ -6,6 +6,7 @@ package com.wynntils.features.map;
 
 import com.wynntils.core.components.Managers;
 import com.wynntils.core.components.Models;
+import com.wynntils.core.components.Services;
 import com.wynntils.core.consumers.features.Feature;
 import com.wynntils.core.consumers.features.properties.RegisterKeyBind;
 import com.wynntils.core.keybinds.KeyBind;
@@ -42,7 +43,13 @@ import org.lwjgl.glfw.GLFW;
 @ConfigCategory(Category.MAP)
 public class MainMapFeature extends Feature {
     @Persisted
-    public final HiddenConfig<List<CustomPoi>> customPois = new HiddenConfig<>(new ArrayList<>());
+    public final HiddenConfig<List<CustomPoi>> customPois = new HiddenConfig<>(new ArrayList<>()) {
+        @Override
+        public void touched() {
+            super.touched();
+            Services.Poi.onCustomPoisChanged();
+        }
+    };
 
     @Persisted
     public final Config<Float> poiFadeAdjustment = new Config<>(0.4f);
@@ -107,6 +114,9 @@ public class MainMapFeature extends Feature {
     @Persisted
     public final Config<Boolean> holdGuildMapOpen = new Config<>(true);
 
+    @Persisted
+    public final Config<Integer> mapTextureMemory = new Config<>(256);
+
     private BlockPos lastChestPos;
 
     @RegisterKeyBind
@@ -10,13 +10,17 @@ import com.wynntils.core.persisted.Persisted;
 import com.wynntils.core.persisted.config.Category;
 import com.wynntils.core.persisted.config.Config;
 import com.wynntils.core.persisted.config.ConfigCategory;
+import com.wynntils.core.text.PartStyle;
 import com.wynntils.core.text.StyledText;
 import com.wynntils.handlers.chat.event.ChatMessageReceivedEvent;
 import com.wynntils.handlers.chat.type.MessageType;
 import com.wynntils.handlers.chat.type.RecipientType;
 import com.wynntils.models.players.type.PlayerRank;
+import com.wynntils.utils.type.PatternIndex;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import net.minecraft.ChatFormatting;
@@ -74,6 +78,7 @@ public class ChatRedirectFeature extends Feature {
     public final Config<RedirectAction> unusedPoints = new Config<>(RedirectAction.REDIRECT);
 
     private final List<Redirector> redirectors = new ArrayList<>();
+    private final Map<MessageType, PatternIndex<Redirector>> redirectorIndexes = new EnumMap<>(MessageType.class);
 
     public ChatRedirectFeature() {
         register(new CraftedDurabilityRedirector());
@@ -107,27 +112,43 @@ public class ChatRedirectFeature extends Feature {
         register(new UnusedAbilityPointsRedirector());
         register(new UnusedSkillAndAbilityPointsRedirector());
         register(new UnusedSkillPointsRedirector());
+
+        buildRedirectorIndexes();
     }
 
     private void register(Redirector redirector) {
         redirectors.add(redirector);
     }
 
+    private void buildRedirectorIndexes() {
+        for (MessageType messageType : MessageType.values()) {
+            PatternIndex<Redirector> index = new PatternIndex<>();
+
+            for (Redirector redirector : redirectors) {
+                Pattern pattern = redirector.getPattern(messageType);
+                if (pattern == null) continue;
+
+                index.add(pattern, redirector);
+            }
+
+            redirectorIndexes.put(messageType, index);
+        }
+    }
+
     @SubscribeEvent(priority = EventPriority.HIGH)
     public void onChatMessage(ChatMessageReceivedEvent e) {
         if (e.getRecipientType() != RecipientType.INFO) return;
 
-        StyledText message = e.getOriginalStyledText();
+        // Build the string once, and only try the redirectors that could possibly match it
+        String message = e.getOriginalStyledText().getString(PartStyle.StyleType.DEFAULT);
         MessageType messageType = e.getMessageType();
 
-        for (Redirector redirector : redirectors) {
+        for (Redirector redirector : redirectorIndexes.get(messageType).getCandidates(message)) {
             RedirectAction action = redirector.getAction();
             if (action == RedirectAction.KEEP) continue;
 
             Pattern pattern = redirector.getPattern(messageType);
-            if (pattern == null) continue;
-
-            Matcher matcher = message.getMatcher(pattern);
+            Matcher matcher = pattern.matcher(message);
 
             if (matcher.find()) {
                 e.setCanceled(true);
@@ -7,11 +7,15 @@ package com.wynntils.functions;
 import com.wynntils.core.components.Models;
 import com.wynntils.core.consumers.functions.Function;
 import com.wynntils.core.consumers.functions.arguments.FunctionArguments;
+import com.wynntils.models.character.event.CharacterUpdateEvent;
+import com.wynntils.models.worlds.event.WorldStateEvent;
 import com.wynntils.utils.mc.McUtils;
 import com.wynntils.utils.type.CappedValue;
 import java.util.List;
 import java.util.Locale;
+import java.util.Optional;
 import net.minecraft.client.player.LocalPlayer;
+import net.minecraftforge.eventbus.api.Event;
 
 public class CharacterFunctions {
     public static class CappedManaFunction extends Function<CappedValue> {
@@ -154,6 +158,12 @@ public class CharacterFunctions {
                     new FunctionArguments.Argument<>("uppercase", Boolean.class, false),
                     new FunctionArguments.Argument<>("showReskinnedName", Boolean.class, true)));
         }
+
+        @Override
+        public Optional<List<Class<? extends Event>>> getDependencies() {
+            // The character is cleared without an update event when leaving the world
+            return Optional.of(List.of(CharacterUpdateEvent.class, WorldStateEvent.class));
+        }
     }
 
     public static class ManaFunction extends Function<Integer> {
@@ -7,7 +7,11 @@ package com.wynntils.functions;
 import com.wynntils.core.components.Models;
 import com.wynntils.core.consumers.functions.Function;
 import com.wynntils.core.consumers.functions.arguments.FunctionArguments;
+import com.wynntils.models.players.event.FriendsEvent;
+import com.wynntils.models.players.event.HadesRelationsUpdateEvent;
 import java.util.List;
+import java.util.Optional;
+import net.minecraftforge.eventbus.api.Event;
 
 public class SocialFunctions {
     public static class FriendsFunction extends Function<Integer> {
@@ -15,6 +19,11 @@ public class SocialFunctions {
         public Integer getValue(FunctionArguments arguments) {
             return Models.Friends.getFriends().size();
         }
+
+        @Override
+        public Optional<List<Class<? extends Event>>> getDependencies() {
+            return Optional.of(List.of(FriendsEvent.class, HadesRelationsUpdateEvent.FriendList.class));
+        }
     }
 
     public static class PartyMembersFunction extends Function<Integer> {
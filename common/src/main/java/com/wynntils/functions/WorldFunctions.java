@@ -11,12 +11,15 @@ import com.wynntils.core.consumers.functions.arguments.FunctionArguments;
 import com.wynntils.models.mobtotem.MobTotem;
 import com.wynntils.models.territories.profile.TerritoryProfile;
 import com.wynntils.models.token.type.TokenGatekeeper;
+import com.wynntils.models.worlds.event.WorldStateEvent;
 import com.wynntils.models.worlds.profile.ServerProfile;
 import com.wynntils.utils.mc.McUtils;
 import com.wynntils.utils.mc.type.Location;
 import com.wynntils.utils.type.CappedValue;
 import java.util.List;
 import java.util.Locale;
+import java.util.Optional;
+import net.minecraftforge.eventbus.api.Event;
 
 public class WorldFunctions {
     public static class CurrentWorldFunction extends Function<String> {
@@ -37,6 +40,11 @@ public class WorldFunctions {
         public List<String> getAliases() {
             return List.of("world");
         }
+
+        @Override
+        public Optional<List<Class<? extends Event>>> getDependencies() {
+            return Optional.of(List.of(WorldStateEvent.class));
+        }
     }
 
     public static class CurrentWorldUptimeFunction extends Function<String> {
@@ -71,6 +79,11 @@ public class WorldFunctions {
         public String getValue(FunctionArguments arguments) {
             return Models.WorldState.getCurrentState().toString().toUpperCase(Locale.ROOT);
         }
+
+        @Override
+        public Optional<List<Class<? extends Event>>> getDependencies() {
+            return Optional.of(List.of(WorldStateEvent.class));
+        }
     }
 
     public static class TokenGatekeeperCountFunction extends Function<Integer> {
@@ -7,6 +7,8 @@ package com.wynntils.functions.generic;
 import com.wynntils.core.consumers.functions.GenericFunction;
 import com.wynntils.core.consumers.functions.arguments.FunctionArguments;
 import java.util.List;
+import java.util.Optional;
+import net.minecraftforge.eventbus.api.Event;
 
 public final class MathFunctions {
     public static class AddFunction extends GenericFunction<Double> {
@@ -219,6 +221,12 @@ public final class MathFunctions {
             return (Math.random() * (max - min)) + min;
         }
 
+        @Override
+        public Optional<List<Class<? extends Event>>> getDependencies() {
+            // A new random value is calculated every time
+            return Optional.empty();
+        }
+
         @Override
         public FunctionArguments.RequiredArgumentBuilder getRequiredArgumentsBuilder() {
             return new FunctionArguments.RequiredArgumentBuilder(List.of(
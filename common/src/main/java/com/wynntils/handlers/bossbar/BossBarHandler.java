@@ -1,5 +1,5 @@
 /*
- * Copyright © Wynntils 2022.
+ * Copyright © Wynntils 2022-2023.
  * This file is released under AGPLv3. See LICENSE for full license details.
  */
 package com.wynntils.handlers.bossbar;
@@ -9,12 +9,9 @@ import com.wynntils.core.components.Handler;
 import com.wynntils.core.text.StyledText;
 import com.wynntils.handlers.bossbar.event.BossBarAddedEvent;
 import com.wynntils.mc.event.BossHealthUpdateEvent;
-import com.wynntils.utils.type.Pair;
-import java.util.ArrayList;
+import com.wynntils.utils.type.PatternIndex;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
@@ -27,10 +24,13 @@ import net.minecraftforge.eventbus.api.SubscribeEvent;
 
 public class BossBarHandler extends Handler {
     private final Map<UUID, TrackedBar> presentBars = new HashMap<>();
-    private final List<TrackedBar> knownBars = new ArrayList<>();
+    // The patterns of all known bars, so a new bar is only matched against patterns that could match its name
+    private final PatternIndex<BarPattern> barPatternIndex = new PatternIndex<>();
 
     public void registerBar(TrackedBar trackedBar) {
-        knownBars.add(trackedBar);
+        for (Pattern pattern : trackedBar.patterns) {
+            barPatternIndex.add(pattern, new BarPattern(trackedBar, pattern));
+        }
     }
 
     // FixPacketBugsFeature gets in the way if receiveCanceled is not set
@@ -58,16 +58,19 @@ public class BossBarHandler extends Handler {
                 boolean darkenScreen,
                 boolean playMusic,
                 boolean createWorldFog) {
-            Optional<Pair<TrackedBar, Matcher>> trackedBarOpt = knownBars.stream()
-                    .flatMap(trackedBar -> trackedBar.patterns.stream().map(pattern -> new Pair<>(trackedBar, pattern)))
-                    .map(pair ->
-                            new Pair<>(pair.a(), StyledText.fromComponent(name).getMatcher(pair.b())))
-                    .filter(pair -> pair.b().matches())
-                    .findFirst();
-            if (trackedBarOpt.isEmpty()) return;
-
-            TrackedBar trackedBar = trackedBarOpt.get().a();
-            Matcher matcher = trackedBarOpt.get().b();
+            String nameString = StyledText.fromComponent(name).getString();
+
+            TrackedBar trackedBar = null;
+            Matcher matcher = null;
+            for (BarPattern candidate : barPatternIndex.getCandidates(nameString)) {
+                Matcher candidateMatcher = candidate.pattern().matcher(nameString);
+                if (candidateMatcher.matches()) {
+                    trackedBar = candidate.trackedBar();
+                    matcher = candidateMatcher;
+                    break;
+                }
+            }
+            if (trackedBar == null) return;
 
             LerpingBossEvent bossEvent =
                     new LerpingBossEvent(id, name, progress, color, overlay, darkenScreen, playMusic, createWorldFog);
@@ -121,10 +124,10 @@ public class BossBarHandler extends Handler {
         @Override
         public void updateName(UUID id, Component name) {
             handleBarUpdate(id, trackedBar -> {
-                StyledText nameText = StyledText.fromComponent(name);
+                String nameString = StyledText.fromComponent(name).getString();
 
                 for (Pattern pattern : trackedBar.patterns) {
-                    Matcher matcher = nameText.getMatcher(pattern);
+                    Matcher matcher = pattern.matcher(nameString);
                     if (matcher.matches()) {
                         trackedBar.onUpdateName(matcher);
                         return;
@@ -147,4 +150,6 @@ public class BossBarHandler extends Handler {
             handleBarUpdate(id, trackedBar -> {});
         }
     }
+
+    private record BarPattern(TrackedBar trackedBar, Pattern pattern) {}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright © Wynntils 2022.
+ * Copyright © Wynntils 2022-2023.
  * This file is released under AGPLv3. See LICENSE for full license details.
  */
 package com.wynntils.handlers.item;
@@ -8,4 +8,10 @@ import net.minecraft.world.item.ItemStack;
 
 public interface ItemAnnotation {
     void onUpdate(ItemStack itemStack);
+
+    /**
+     * Returns an annotation for another item stack with the same contents.
+     * State that belongs to a single item stack must not be shared with the copy.
+     */
+    ItemAnnotation copy();
 }
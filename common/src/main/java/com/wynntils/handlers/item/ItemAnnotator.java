@@ -1,13 +1,28 @@
 /*
- * Copyright © Wynntils 2022.
+ * Copyright © Wynntils 2022-2023.
  * This file is released under AGPLv3. See LICENSE for full license details.
  */
 package com.wynntils.handlers.item;
 
 import com.wynntils.core.text.StyledText;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 
 @FunctionalInterface
 public interface ItemAnnotator {
     ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name);
+
+    // If present, this annotator is only called for items whose name could match this pattern.
+    // Only return a pattern that getAnnotation requires the (normalized, formatted) name to match.
+    default Optional<Pattern> getNamePattern() {
+        return Optional.empty();
+    }
+
+    // If present, this annotator is only called for items of these types
+    default Optional<Set<Item>> getItemTypes() {
+        return Optional.empty();
+    }
 }
@@ -4,9 +4,13 @@
  */
 package com.wynntils.handlers.item;
 
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.wynntils.core.WynntilsMod;
 import com.wynntils.core.components.Handler;
+import com.wynntils.core.components.Managers;
 import com.wynntils.core.mod.type.CrashType;
+import com.wynntils.core.mod.type.ProfilingCategory;
 import com.wynntils.core.text.StyledText;
 import com.wynntils.handlers.item.event.ItemRenamedEvent;
 import com.wynntils.mc.event.ContainerSetContentEvent;
@@ -14,12 +18,16 @@ import com.wynntils.mc.event.SetSlotEvent;
 import com.wynntils.mc.extension.ItemStackExtension;
 import com.wynntils.utils.mc.LoreUtils;
 import com.wynntils.utils.mc.McUtils;
+import com.wynntils.utils.type.PatternIndex;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import net.minecraft.core.NonNullList;
+import net.minecraft.nbt.CompoundTag;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
@@ -28,13 +36,26 @@ import net.minecraftforge.eventbus.api.SubscribeEvent;
 
 public class ItemHandler extends Handler {
     private static final List<Item> WILDCARD_ITEMS = List.of(Items.DIAMOND_SHOVEL, Items.DIAMOND_PICKAXE);
+    private static final int MAX_CACHED_ANNOTATIONS = 1024;
 
     private final List<ItemAnnotator> annotators = new ArrayList<>();
-    private final Map<Class<?>, Integer> profilingTimes = new HashMap<>();
-    private final Map<Class<?>, Integer> profilingCounts = new HashMap<>();
+    // Annotators indexed by their name patterns, so only annotators that could match an item name are called
+    private PatternIndex<IndexedAnnotator> annotatorIndex = new PatternIndex<>();
     // Keep this as a field just of performance reasons to skip a new allocation in annotate()
     private final List<ItemAnnotator> crashedAnnotators = new ArrayList<>();
 
+    // The same items are sent over and over again (bank pages, trade market, container refreshes),
+    // so annotations are cached by a fingerprint of everything the annotators look at.
+    // Items without an annotation are not cached, as they might be annotated once the data an annotator needs is
+    // loaded. Every item stack gets its own copy of a cached annotation.
+    private final Map<Long, CachedAnnotation> annotationCache =
+            new LinkedHashMap<>(MAX_CACHED_ANNOTATIONS, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, CachedAnnotation> eldest) {
+                    return size() > MAX_CACHED_ANNOTATIONS;
+                }
+            };
+
     public static Optional<ItemAnnotation> getItemStackAnnotation(ItemStack itemStack) {
         if (itemStack == null) return Optional.empty();
 
@@ -44,6 +65,7 @@ public class ItemHandler extends Handler {
 
     public void registerAnnotator(ItemAnnotator annotator) {
         annotators.add(annotator);
+        rebuildAnnotatorIndex();
     }
 
     public void updateItem(ItemStack itemStack, ItemAnnotation annotation, StyledText name) {
@@ -133,7 +155,7 @@ public class ItemHandler extends Handler {
         if (!newName.equals(originalName) && newBaseName.equals(originalBaseName)) {
             // The base name is the same but the full name differs. This means we have an updated
             // title, and the existing item has changed some property.
-            annotation = calculateAnnotation(newItem, newName);
+            annotation = getCachedAnnotation(newItem, newName).annotation();
         }
 
         // Set the new item with the old (or updated) annotation, and keep the original name
@@ -173,13 +195,22 @@ public class ItemHandler extends Handler {
     }
 
     private ItemAnnotation calculateAnnotation(ItemStack itemStack, StyledText name) {
-        long startTime = System.currentTimeMillis();
-
         ItemAnnotation annotation = null;
 
-        for (ItemAnnotator annotator : annotators) {
+        List<IndexedAnnotator> candidates = annotatorIndex.getCandidates(name.getString());
+
+        for (IndexedAnnotator candidate : candidates) {
+            if (!candidate.canAnnotate(itemStack)) continue;
+
+            ItemAnnotator annotator = candidate.annotator();
+            long startTime = System.nanoTime();
             try {
                 annotation = annotator.getAnnotation(itemStack, name);
+
+                // Rejecting an item takes time as well, so all calls are measured
+                Managers.Profiling.record(
+                        ProfilingCategory.ANNOTATOR, annotator.getClass().getSimpleName(), startTime);
+
                 if (annotation != null) {
                     break;
                 }
@@ -200,47 +231,91 @@ public class ItemHandler extends Handler {
         }
 
         // Hopefully we have none :)
-        for (ItemAnnotator annotator : crashedAnnotators) {
-            annotators.remove(annotator);
+        if (!crashedAnnotators.isEmpty()) {
+            for (ItemAnnotator annotator : crashedAnnotators) {
+                annotators.remove(annotator);
+            }
+            crashedAnnotators.clear();
+
+            rebuildAnnotatorIndex();
         }
-        crashedAnnotators.clear();
 
-        if (annotation == null) return null;
+        return annotation;
+    }
 
-        // Measure performance
-        logProfilingData(startTime, annotation);
+    private void rebuildAnnotatorIndex() {
+        PatternIndex<IndexedAnnotator> newIndex = new PatternIndex<>();
 
-        return annotation;
+        for (ItemAnnotator annotator : annotators) {
+            IndexedAnnotator indexedAnnotator =
+                    new IndexedAnnotator(annotator, annotator.getItemTypes().orElse(null));
+
+            annotator
+                    .getNamePattern()
+                    .ifPresentOrElse(
+                            pattern -> newIndex.add(pattern, indexedAnnotator),
+                            () -> newIndex.addUnconditional(indexedAnnotator));
+        }
+
+        annotatorIndex = newIndex;
+
+        // Cached results might have been calculated by a different set of annotators
+        annotationCache.clear();
     }
 
     private void annotate(ItemStack itemStack) {
-        StyledText name = StyledText.fromComponent(itemStack.getHoverName()).getNormalized();
-        ItemAnnotation annotation = calculateAnnotation(itemStack, name);
-        if (annotation == null) return;
+        CachedAnnotation cachedAnnotation = getCachedAnnotation(itemStack, null);
+        if (cachedAnnotation.annotation() == null) return;
 
-        updateItem(itemStack, annotation, name);
+        updateItem(itemStack, cachedAnnotation.annotation(), cachedAnnotation.name());
     }
 
-    private void logProfilingData(long startTime, ItemAnnotation annotation) {
-        long endTime = System.currentTimeMillis();
-        int timeSpent = (int) (endTime - startTime);
-        int allTime = profilingTimes.getOrDefault(annotation.getClass(), 0);
-        profilingTimes.put(annotation.getClass(), allTime + timeSpent);
+    // The name is calculated from the item if it is not given
+    private CachedAnnotation getCachedAnnotation(ItemStack itemStack, StyledText name) {
+        long fingerprint = getFingerprint(itemStack);
 
-        int allCount = profilingCounts.getOrDefault(annotation.getClass(), 0);
-        profilingCounts.put(annotation.getClass(), allCount + 1);
-    }
+        CachedAnnotation cachedAnnotation = annotationCache.get(fingerprint);
+        if (cachedAnnotation != null) {
+            Managers.Profiling.incrementCounter("Item annotation cache hits");
+            return new CachedAnnotation(cachedAnnotation.annotation().copy(), cachedAnnotation.name());
+        }
+
+        Managers.Profiling.incrementCounter("Item annotation cache misses");
 
-    public Map<Class<?>, Integer> getProfilingTimes() {
-        return profilingTimes;
+        if (name == null) {
+            name = StyledText.fromComponent(itemStack.getHoverName()).getNormalized();
+        }
+
+        cachedAnnotation = new CachedAnnotation(calculateAnnotation(itemStack, name), name);
+        if (cachedAnnotation.annotation() != null) {
+            annotationCache.put(fingerprint, cachedAnnotation);
+        }
+        return cachedAnnotation;
     }
 
-    public Map<Class<?>, Integer> getProfilingCounts() {
-        return profilingCounts;
+    private long getFingerprint(ItemStack itemStack) {
+        // The hover name and lore are part of the tag, if they differ from the item defaults
+        Hasher hasher = Hashing.sipHash24()
+                .newHasher()
+                .putInt(Item.getId(itemStack.getItem()))
+                .putInt(itemStack.getDamageValue())
+                // We have to use the count field here to bypass the getCount method empty flag
+                .putInt(itemStack.count);
+
+        CompoundTag tag = itemStack.getTag();
+        if (tag != null) {
+            // The string representation has sorted keys, so equal tags always hash the same
+            hasher.putString(tag.getAsString(), StandardCharsets.UTF_8);
+        }
+
+        return hasher.hash().asLong();
     }
 
-    public void resetProfiling() {
-        profilingTimes.clear();
-        profilingCounts.clear();
+    private record CachedAnnotation(ItemAnnotation annotation, StyledText name) {}
+
+    private record IndexedAnnotator(ItemAnnotator annotator, Set<Item> itemTypes) {
+        private boolean canAnnotate(ItemStack itemStack) {
+            return itemTypes == null || itemTypes.contains(itemStack.getItem());
+        }
     }
 }
@@ -7,6 +7,7 @@ package com.wynntils.handlers.scoreboard;
 import com.google.common.collect.ImmutableMap;
 import com.wynntils.core.WynntilsMod;
 import com.wynntils.core.components.Handler;
+import com.wynntils.core.components.Managers;
 import com.wynntils.core.text.PartStyle;
 import com.wynntils.core.text.StyledText;
 import com.wynntils.handlers.scoreboard.event.ScoreboardSegmentAdditionEvent;
@@ -15,11 +16,13 @@ import com.wynntils.handlers.scoreboard.type.SegmentMatcher;
 import com.wynntils.mc.event.ScoreboardSetDisplayObjectiveEvent;
 import com.wynntils.mc.event.ScoreboardSetObjectiveEvent;
 import com.wynntils.mc.event.ScoreboardSetScoreEvent;
+import com.wynntils.mc.event.TickEvent;
 import com.wynntils.models.worlds.event.WorldStateEvent;
 import com.wynntils.models.worlds.type.WorldState;
 import com.wynntils.utils.mc.McUtils;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -49,6 +52,12 @@ public final class ScoreboardHandler extends Handler {
     private String currentScoreboardName = "";
     private final Map<ScoreboardPart, ScoreboardSegment> scoreboardSegments = new LinkedHashMap<>();
 
+    // Wynncraft sends scoreboard updates in bursts, so they are handled at most once per tick
+    private boolean updatePending = false;
+    // The scoreboard lines of the last successful update, used to skip updates that change nothing
+    private List<ScoreboardLine> lastScoreboardState = List.of();
+    private Map<String, StyledText> parsedLines = new HashMap<>();
+
     private final List<ScoreboardPart> scoreboardParts = new ArrayList<>();
 
     public void addPart(ScoreboardPart scoreboardPart) {
@@ -67,14 +76,14 @@ public final class ScoreboardHandler extends Handler {
     public void onSetScore(ScoreboardSetScoreEvent event) {
         if (!currentScoreboardName.equals(event.getObjectiveName())) return;
 
-        handleUpdate();
+        scheduleUpdate();
     }
 
     @SubscribeEvent(priority = EventPriority.HIGHEST)
     public void onSetObjective(ScoreboardSetObjectiveEvent event) {
         if (!currentScoreboardName.equals(event.getObjectiveName())) return;
 
-        handleUpdate();
+        scheduleUpdate();
     }
 
     @SubscribeEvent(priority = EventPriority.HIGHEST)
@@ -82,11 +91,23 @@ public final class ScoreboardHandler extends Handler {
         if (!isValidScoreboardName(event.getObjectiveName())) return;
 
         currentScoreboardName = event.getObjectiveName();
+
+        // A new objective is displayed, so do a full update right away
+        lastScoreboardState = List.of();
+        updatePending = false;
         handleUpdate();
 
         event.setCanceled(true);
     }
 
+    @SubscribeEvent
+    public void onTick(TickEvent event) {
+        if (!updatePending) return;
+
+        updatePending = false;
+        handleUpdate();
+    }
+
     @SubscribeEvent
     public void onWorldStateChange(WorldStateEvent event) {
         if (event.getNewState() == WorldState.WORLD) return;
@@ -95,21 +116,46 @@ public final class ScoreboardHandler extends Handler {
 
         scoreboardSegments.clear();
         currentScoreboardName = "";
+        lastScoreboardState = List.of();
+        parsedLines = new HashMap<>();
+        updatePending = false;
+    }
+
+    private void scheduleUpdate() {
+        if (updatePending) {
+            Managers.Profiling.incrementCounter("Scoreboard updates coalesced");
+            return;
+        }
+
+        updatePending = true;
     }
 
     private void handleUpdate() {
         // 1. Get a reconstructed scoreboard from the current scoreboard state
         List<ScoreboardLine> reconstructedScoreboard = getCurrentScoreboardState(currentScoreboardName);
 
+        // If nothing changed since the last update, there is nothing to do
+        if (reconstructedScoreboard.equals(lastScoreboardState)) {
+            Managers.Profiling.incrementCounter("Scoreboard updates without changes");
+            return;
+        }
+
         // 2. Verify that the scoreboard is in a semi-valid state
         // (in a state where we can make sense of it, even if the actual data is still being updated)
         if (!isScoreboardValid(reconstructedScoreboard)) return;
 
         // 3. Calculate the scoreboard segments, do segment updates
-        calculateScoreboardSegments(reconstructedScoreboard);
+        boolean segmentsChanged = calculateScoreboardSegments(reconstructedScoreboard);
 
         // 4. Create our own scoreboard to hide specific segments
-        createScoreboardFromSegments(reconstructedScoreboard);
+        // If no segment changed (e.g. only the scores changed), our scoreboard is still up to date
+        if (segmentsChanged || lastScoreboardState.isEmpty()) {
+            createScoreboardFromSegments(reconstructedScoreboard);
+        } else {
+            Managers.Profiling.incrementCounter("Scoreboard rebuilds without segment changes");
+        }
+
+        lastScoreboardState = reconstructedScoreboard;
     }
 
     private List<ScoreboardLine> getCurrentScoreboardState(String currentScoreboardName) {
@@ -120,9 +166,23 @@ public final class ScoreboardHandler extends Handler {
         // Lines are by default in reverse order
         Collections.reverse(lines);
 
-        return lines.stream()
-                .map(s -> new ScoreboardLine(StyledText.fromString(s.getOwner()), s.getScore()))
-                .toList();
+        // Reuse the parsed lines of the last update, most lines do not change between updates
+        Map<String, StyledText> previousLines = parsedLines;
+        parsedLines = new HashMap<>();
+
+        List<ScoreboardLine> scoreboardLines = new ArrayList<>(lines.size());
+        for (Score score : lines) {
+            String owner = score.getOwner();
+            StyledText line = previousLines.get(owner);
+            if (line == null) {
+                line = StyledText.fromString(owner);
+            }
+
+            parsedLines.put(owner, line);
+            scoreboardLines.add(new ScoreboardLine(line, score.getScore()));
+        }
+
+        return scoreboardLines;
     }
 
     private boolean isScoreboardValid(List<ScoreboardLine> reconstructedScoreboard) {
@@ -143,13 +203,11 @@ public final class ScoreboardHandler extends Handler {
         }
 
         // 1. Check for duplicate lines
-        List<StyledText> lines = new ArrayList<>();
+        Set<StyledText> lines = new HashSet<>();
         for (ScoreboardLine line : reconstructedScoreboard) {
-            if (lines.contains(line.line())) {
+            if (!lines.add(line.line())) {
                 return false;
             }
-
-            lines.add(line.line());
         }
 
         // 2. Check for gaps in the scores
@@ -222,13 +280,15 @@ public final class ScoreboardHandler extends Handler {
         return true;
     }
 
-    private void calculateScoreboardSegments(List<ScoreboardLine> reconstructedScoreboard) {
+    // Returns whether any segment was added, changed, removed or moved
+    private boolean calculateScoreboardSegments(List<ScoreboardLine> reconstructedScoreboard) {
         int currentIndex = 1;
         List<ScoreboardLine> scoreboardLines = reconstructedScoreboard.stream().toList();
 
         Map<ScoreboardPart, ScoreboardSegment> oldSegments = ImmutableMap.copyOf(scoreboardSegments);
         scoreboardSegments.clear();
 
+        boolean visibilityChanged = false;
         while (currentIndex < scoreboardLines.size()) {
             ScoreboardLine headerLine = scoreboardLines.get(currentIndex);
             ScoreboardPart part = getScoreboardPartForHeader(headerLine);
@@ -238,7 +298,7 @@ public final class ScoreboardHandler extends Handler {
                 WynntilsMod.error(
                         "Scoreboard passed validness check, but we could not find a scoreboard part for the line: "
                                 + scoreboardLines.get(currentIndex).line());
-                return;
+                return true;
             }
 
             List<StyledText> contentLines = new ArrayList<>();
@@ -253,6 +313,22 @@ public final class ScoreboardHandler extends Handler {
                 contentLines.add(line.line());
             }
 
+            ScoreboardSegment oldSegment = oldSegments.get(part);
+
+            // Unchanged segments are kept as they are, so they are not parsed again by their part
+            if (oldSegment != null
+                    && oldSegment.getHeader().equals(headerLine.line())
+                    && oldSegment.getContent().equals(contentLines)) {
+                boolean visible = !WynntilsMod.postEvent(new ScoreboardSegmentAdditionEvent(oldSegment));
+                if (visible != oldSegment.isVisible()) {
+                    oldSegment.setVisibility(visible);
+                    visibilityChanged = true;
+                }
+
+                scoreboardSegments.put(part, oldSegment);
+                continue;
+            }
+
             ScoreboardSegment segment = new ScoreboardSegment(part, headerLine.line(), contentLines);
             boolean eventCanceled = WynntilsMod.postEvent(new ScoreboardSegmentAdditionEvent(segment));
 
@@ -260,6 +336,10 @@ public final class ScoreboardHandler extends Handler {
             scoreboardSegments.put(part, segment);
         }
 
+        // The order of the segments matters as well, not only which segments there are
+        boolean orderChanged = !List.copyOf(oldSegments.keySet()).equals(List.copyOf(scoreboardSegments.keySet()));
+        boolean segmentsChanged = visibilityChanged || orderChanged;
+
         // Handle segment removals
         for (Map.Entry<ScoreboardPart, ScoreboardSegment> entry : oldSegments.entrySet()) {
             if (scoreboardSegments.get(entry.getKey()) == null) {
@@ -271,10 +351,16 @@ public final class ScoreboardHandler extends Handler {
         for (Map.Entry<ScoreboardPart, ScoreboardSegment> entry : scoreboardSegments.entrySet()) {
             ScoreboardSegment oldSegment = oldSegments.get(entry.getKey());
 
-            if (oldSegment == null || !oldSegment.equals(entry.getValue())) {
-                entry.getKey().onSegmentChange(entry.getValue());
+            if (oldSegment != entry.getValue()) {
+                segmentsChanged = true;
+
+                if (oldSegment == null || !oldSegment.equals(entry.getValue())) {
+                    entry.getKey().onSegmentChange(entry.getValue());
+                }
             }
         }
+
+        return segmentsChanged;
     }
 
     private void createScoreboardFromSegments(List<ScoreboardLine> reconstructedScoreboard) {
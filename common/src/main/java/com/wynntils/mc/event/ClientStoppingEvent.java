@@ -0,0 +1,12 @@
+/*
+ * Copyright © Wynntils 2023.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.mc.event;
+
+import net.minecraftforge.eventbus.api.Event;
+
+/**
+ * Fired on the render thread when the client is shutting down, before the game is torn down.
+ */
+public class ClientStoppingEvent extends Event {}
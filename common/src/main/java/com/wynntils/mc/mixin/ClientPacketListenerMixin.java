@@ -569,6 +569,7 @@ public abstract class ClientPacketListenerMixin {
                             shift = At.Shift.AFTER))
     private void handleAddEntity(ClientboundAddEntityPacket packet, CallbackInfo ci, @Local Entity entity) {
         if (!isRenderThread()) return;
+        if (!MixinHelper.hasListeners(AddEntityEvent.class)) return;
 
         // This mixin is added after the last actual instruction, where the local variable entity
         // still exists.
@@ -581,6 +582,7 @@ public abstract class ClientPacketListenerMixin {
             at = @At("RETURN"))
     private void handleTeleportEntity(ClientboundTeleportEntityPacket packet, CallbackInfo ci) {
         if (!isRenderThread()) return;
+        if (!MixinHelper.hasListeners(TeleportEntityEvent.class)) return;
 
         Entity entity = McUtils.mc().level.getEntity(packet.getId());
         if (entity == null) return;
@@ -594,6 +596,7 @@ public abstract class ClientPacketListenerMixin {
             at = @At("HEAD"))
     private void handleSetEntityDataPre(ClientboundSetEntityDataPacket packet, CallbackInfo ci) {
         if (!isRenderThread()) return;
+        if (!MixinHelper.hasListeners(SetEntityDataEvent.class)) return;
 
         MixinHelper.post(new SetEntityDataEvent(packet));
     }
@@ -603,6 +606,7 @@ public abstract class ClientPacketListenerMixin {
             at = @At("RETURN"))
     private void handleRemoveEntities(ClientboundRemoveEntitiesPacket packet, CallbackInfo ci) {
         if (!isRenderThread()) return;
+        if (!MixinHelper.hasListeners(RemoveEntitiesEvent.class)) return;
 
         MixinHelper.post(new RemoveEntitiesEvent(packet));
     }
@@ -613,6 +617,7 @@ public abstract class ClientPacketListenerMixin {
             cancellable = true)
     private void handleSoundEventPre(ClientboundSoundPacket packet, CallbackInfo ci) {
         if (!isRenderThread()) return;
+        if (!MixinHelper.hasListeners(LocalSoundEvent.Client.class)) return;
 
         LocalSoundEvent.Client event =
                 new LocalSoundEvent.Client(packet.getSound().value(), packet.getSource());
@@ -628,6 +633,7 @@ public abstract class ClientPacketListenerMixin {
             at = @At("HEAD"))
     private void handleParticles(ClientboundLevelParticlesPacket packet, CallbackInfo ci) {
         if (!isRenderThread()) return;
+        if (!MixinHelper.hasListeners(ParticleAddedEvent.class)) return;
 
         MixinHelper.post(new ParticleAddedEvent(packet));
     }
@@ -5,6 +5,7 @@
 package com.wynntils.mc.mixin;
 
 import com.wynntils.core.events.MixinHelper;
+import com.wynntils.mc.event.ClientStoppingEvent;
 import com.wynntils.mc.event.DisplayResizeEvent;
 import com.wynntils.mc.event.ScreenClosedEvent;
 import com.wynntils.mc.event.ScreenOpenedEvent;
@@ -49,4 +50,9 @@ public abstract class MinecraftMixin {
     private void resizeDisplayPost(CallbackInfo ci) {
         MixinHelper.postAlways(new DisplayResizeEvent());
     }
+
+    @Inject(method = "destroy()V", at = @At("HEAD"))
+    private void destroyPre(CallbackInfo ci) {
+        MixinHelper.postAlways(new ClientStoppingEvent());
+    }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright © Wynntils 2022.
+ * Copyright © Wynntils 2022-2023.
  * This file is released under AGPLv3. See LICENSE for full license details.
  */
 package com.wynntils.models.items;
@@ -7,8 +7,9 @@ package com.wynntils.models.items;
 import com.wynntils.handlers.item.ItemAnnotation;
 import net.minecraft.world.item.ItemStack;
 
-public class WynnItem implements ItemAnnotation {
-    private final WynnItemCache cache = new WynnItemCache();
+public class WynnItem implements ItemAnnotation, Cloneable {
+    // The cache is the only state that belongs to a single item stack, all other fields of items are final
+    private WynnItemCache cache = new WynnItemCache();
 
     public WynnItemCache getCache() {
         return cache;
@@ -23,4 +24,15 @@ public class WynnItem implements ItemAnnotation {
     public void onUpdate(ItemStack itemStack) {
         cache.clearAll();
     }
+
+    @Override
+    public WynnItem copy() {
+        try {
+            WynnItem copy = (WynnItem) super.clone();
+            copy.cache = new WynnItemCache();
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
 }
@@ -9,6 +9,7 @@ import com.wynntils.handlers.item.ItemAnnotation;
 import com.wynntils.handlers.item.ItemAnnotator;
 import com.wynntils.models.items.items.game.AmplifierItem;
 import com.wynntils.utils.MathUtils;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import net.minecraft.world.item.ItemStack;
@@ -16,6 +17,11 @@ import net.minecraft.world.item.ItemStack;
 public final class AmplifierAnnotator implements ItemAnnotator {
     private static final Pattern AMPLIFIER_PATTERN = Pattern.compile("^§bCorkian Amplifier (I{1,3})$");
 
+    @Override
+    public Optional<Pattern> getNamePattern() {
+        return Optional.of(AMPLIFIER_PATTERN);
+    }
+
     @Override
     public ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name) {
         Matcher ampMatcher = name.getMatcher(AMPLIFIER_PATTERN);
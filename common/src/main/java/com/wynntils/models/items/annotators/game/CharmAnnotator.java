@@ -8,6 +8,7 @@ import com.wynntils.core.components.Models;
 import com.wynntils.core.text.StyledText;
 import com.wynntils.handlers.item.ItemAnnotation;
 import com.wynntils.handlers.item.ItemAnnotator;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import net.minecraft.world.item.ItemStack;
@@ -15,6 +16,11 @@ import net.minecraft.world.item.ItemStack;
 public final class CharmAnnotator implements ItemAnnotator {
     private static final Pattern CHARM_PATTERN = Pattern.compile("^§[5abcdef](Charm of the (?<Type>\\w+))$");
 
+    @Override
+    public Optional<Pattern> getNamePattern() {
+        return Optional.of(CHARM_PATTERN);
+    }
+
     @Override
     public ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name) {
         Matcher matcher = name.getMatcher(CHARM_PATTERN);
@@ -11,6 +11,7 @@ import com.wynntils.models.items.items.game.CraftedConsumableItem;
 import com.wynntils.models.wynnitem.parsing.WynnItemParseResult;
 import com.wynntils.models.wynnitem.parsing.WynnItemParser;
 import com.wynntils.utils.type.CappedValue;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import net.minecraft.world.item.ItemStack;
@@ -18,6 +19,11 @@ import net.minecraft.world.item.ItemStack;
 public final class CraftedConsumableAnnotator implements ItemAnnotator {
     private static final Pattern CRAFTED_CONSUMABLE_PATTERN = Pattern.compile("^§3(.*)§b \\[(\\d+)/(\\d+)\\]$");
 
+    @Override
+    public Optional<Pattern> getNamePattern() {
+        return Optional.of(CRAFTED_CONSUMABLE_PATTERN);
+    }
+
     @Override
     public ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name) {
         Matcher matcher = name.getMatcher(CRAFTED_CONSUMABLE_PATTERN);
@@ -8,6 +8,7 @@ import com.wynntils.core.components.Models;
 import com.wynntils.core.text.StyledText;
 import com.wynntils.handlers.item.ItemAnnotation;
 import com.wynntils.handlers.item.ItemAnnotator;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import net.minecraft.world.item.ItemStack;
@@ -15,6 +16,11 @@ import net.minecraft.world.item.ItemStack;
 public final class CraftedGearAnnotator implements ItemAnnotator {
     private static final Pattern CRAFTED_GEAR_PATTERN = Pattern.compile("^§3(.*)§b \\[\\d{1,3}%\\]$");
 
+    @Override
+    public Optional<Pattern> getNamePattern() {
+        return Optional.of(CRAFTED_GEAR_PATTERN);
+    }
+
     @Override
     public ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name) {
         Matcher matcher = name.getMatcher(CRAFTED_GEAR_PATTERN);
@@ -10,6 +10,7 @@ import com.wynntils.handlers.item.ItemAnnotator;
 import com.wynntils.models.items.items.game.DungeonKeyItem;
 import com.wynntils.utils.mc.LoreUtils;
 import java.util.Arrays;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -21,6 +22,11 @@ public final class DungeonKeyAnnotator implements ItemAnnotator {
 
     private static final Pattern LORE_PATTERN = Pattern.compile("§7(Grants access to the|Use this item at the)");
 
+    @Override
+    public Optional<Pattern> getNamePattern() {
+        return Optional.of(DUNGEON_KEY_PATTERN);
+    }
+
     @Override
     public ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name) {
         Matcher keyMatcher = name.getMatcher(DUNGEON_KEY_PATTERN);
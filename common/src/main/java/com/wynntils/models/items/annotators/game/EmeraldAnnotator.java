@@ -9,13 +9,31 @@ import com.wynntils.handlers.item.ItemAnnotation;
 import com.wynntils.handlers.item.ItemAnnotator;
 import com.wynntils.models.emeralds.type.EmeraldUnits;
 import com.wynntils.models.items.items.game.EmeraldItem;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 
 public final class EmeraldAnnotator implements ItemAnnotator {
     private static final Pattern EMERALD_PATTERN = Pattern.compile("^§a(Liquid )?Emerald( Block)?$");
 
+    private static final Set<Item> EMERALD_ITEMS =
+            Arrays.stream(EmeraldUnits.values()).map(EmeraldUnits::getItemType).collect(Collectors.toSet());
+
+    @Override
+    public Optional<Pattern> getNamePattern() {
+        return Optional.of(EMERALD_PATTERN);
+    }
+
+    @Override
+    public Optional<Set<Item>> getItemTypes() {
+        return Optional.of(EMERALD_ITEMS);
+    }
+
     @Override
     public ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name) {
         EmeraldUnits unit = EmeraldUnits.fromItemType(itemStack.getItem());
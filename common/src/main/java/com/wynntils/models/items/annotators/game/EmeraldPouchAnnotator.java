@@ -11,8 +11,11 @@ import com.wynntils.models.emeralds.type.EmeraldUnits;
 import com.wynntils.models.items.items.game.EmeraldPouchItem;
 import com.wynntils.utils.MathUtils;
 import com.wynntils.utils.mc.LoreUtils;
+import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
 
@@ -21,6 +24,18 @@ public final class EmeraldPouchAnnotator implements ItemAnnotator {
     private static final Pattern EMERALD_POUCH_LORE_PATTERN =
             Pattern.compile("§6§l([\\d\\s]+)" + EmeraldUnits.EMERALD.getSymbol() + ".*");
 
+    private static final Set<Item> ITEM_TYPES = Set.of(Items.DIAMOND_AXE, Items.GOLDEN_SHOVEL);
+
+    @Override
+    public Optional<Pattern> getNamePattern() {
+        return Optional.of(EMERALD_POUCH_PATTERN);
+    }
+
+    @Override
+    public Optional<Set<Item>> getItemTypes() {
+        return Optional.of(ITEM_TYPES);
+    }
+
     @Override
     public ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name) {
         // Checks for normal emerald pouch (diamond axe) and emerald pouch pickup texture (gold shovel)
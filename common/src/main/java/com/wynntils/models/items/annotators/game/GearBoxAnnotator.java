@@ -12,8 +12,11 @@ import com.wynntils.models.gear.type.GearType;
 import com.wynntils.models.items.items.game.GearBoxItem;
 import com.wynntils.utils.mc.LoreUtils;
 import com.wynntils.utils.type.RangedValue;
+import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
 
@@ -21,6 +24,18 @@ public final class GearBoxAnnotator implements ItemAnnotator {
     private static final Pattern GEAR_BOX_PATTERN = Pattern.compile("^§[5abcdef]Unidentified (.*)$");
     private static final Pattern LEVEL_RANGE_PATTERN = Pattern.compile("^§a- §7Lv\\. Range: §f(\\d+)-(\\d+)$");
 
+    private static final Set<Item> ITEM_TYPES = Set.of(Items.STONE_SHOVEL);
+
+    @Override
+    public Optional<Pattern> getNamePattern() {
+        return Optional.of(GEAR_BOX_PATTERN);
+    }
+
+    @Override
+    public Optional<Set<Item>> getItemTypes() {
+        return Optional.of(ITEM_TYPES);
+    }
+
     @Override
     public ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name) {
         if (!(itemStack.getItem() == Items.STONE_SHOVEL
@@ -10,8 +10,11 @@ import com.wynntils.handlers.item.ItemAnnotator;
 import com.wynntils.models.items.items.game.HorseItem;
 import com.wynntils.utils.mc.LoreUtils;
 import com.wynntils.utils.type.CappedValue;
+import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
 
@@ -22,6 +25,18 @@ public final class HorseAnnotator implements ItemAnnotator {
     private static final Pattern HORSE_XP_PATTERN = Pattern.compile("^§bXp: (\\d+)/100$");
     private static final Pattern HORSE_NAME_PATTERN = Pattern.compile("^§7Name: (.+)$");
 
+    private static final Set<Item> ITEM_TYPES = Set.of(Items.SADDLE);
+
+    @Override
+    public Optional<Pattern> getNamePattern() {
+        return Optional.of(HORSE_PATTERN);
+    }
+
+    @Override
+    public Optional<Set<Item>> getItemTypes() {
+        return Optional.of(ITEM_TYPES);
+    }
+
     @Override
     public ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name) {
         if (itemStack.getItem() != Items.SADDLE) return null;
@@ -9,6 +9,7 @@ import com.wynntils.handlers.item.ItemAnnotation;
 import com.wynntils.handlers.item.ItemAnnotator;
 import com.wynntils.models.items.items.game.MultiHealthPotionItem;
 import com.wynntils.utils.type.CappedValue;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import net.minecraft.world.item.ItemStack;
@@ -17,6 +18,11 @@ public final class MultiHealthPotionAnnotator implements ItemAnnotator {
     private static final Pattern MULTI_HEALTH_POTION_PATTERN =
             Pattern.compile("^§c\\[\\+(\\d+) ❤\\] §dPotions of Healing §4\\[(\\d+)/(\\d+)\\]$");
 
+    @Override
+    public Optional<Pattern> getNamePattern() {
+        return Optional.of(MULTI_HEALTH_POTION_PATTERN);
+    }
+
     @Override
     public ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name) {
         Matcher matcher = name.getMatcher(MULTI_HEALTH_POTION_PATTERN);
@@ -13,6 +13,7 @@ import com.wynntils.models.items.items.game.PotionItem;
 import com.wynntils.models.wynnitem.parsing.WynnItemParseResult;
 import com.wynntils.models.wynnitem.parsing.WynnItemParser;
 import com.wynntils.utils.type.CappedValue;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import net.minecraft.world.item.ItemStack;
@@ -24,6 +25,11 @@ public final class PotionAnnotator implements ItemAnnotator {
     private static final Pattern XP_PATTERN = Pattern.compile("^Wisdom$");
     private static final Pattern SKILL_PATTERN = Pattern.compile("^§[2ebcf][✤✦❉✹❋] (.*)§a \\[(\\d+)/(\\d+)\\]$");
 
+    @Override
+    public Optional<Pattern> getNamePattern() {
+        return Optional.of(POTION_PATTERN);
+    }
+
     @Override
     public ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name) {
         Matcher matcher = name.getMatcher(POTION_PATTERN);
@@ -13,6 +13,7 @@ import com.wynntils.models.elements.type.PowderTierInfo;
 import com.wynntils.models.items.items.game.PowderItem;
 import com.wynntils.utils.MathUtils;
 import java.util.Locale;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import net.minecraft.world.item.ItemStack;
@@ -21,6 +22,11 @@ public final class PowderAnnotator implements ItemAnnotator {
     private static final Pattern POWDER_PATTERN =
             Pattern.compile("^§[2ebcf8].? ?(Earth|Thunder|Water|Fire|Air) Powder ([IV]{1,3})$");
 
+    @Override
+    public Optional<Pattern> getNamePattern() {
+        return Optional.of(POWDER_PATTERN);
+    }
+
     @Override
     public ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name) {
         Matcher matcher = name.getMatcher(POWDER_PATTERN);
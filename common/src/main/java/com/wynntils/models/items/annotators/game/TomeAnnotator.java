@@ -10,8 +10,10 @@ import com.wynntils.handlers.item.ItemAnnotation;
 import com.wynntils.handlers.item.ItemAnnotator;
 import com.wynntils.models.rewards.type.TomeType;
 import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
 
@@ -19,6 +21,18 @@ public final class TomeAnnotator implements ItemAnnotator {
     private static final Pattern TOME_PATTERN = Pattern.compile(
             "^§[5abcdef]((?<Variant>[\\w']+)? ?Tome of (?<Type>\\w+))(?:( Mastery( (?<Tier>[IVX]{1,4}))?))?$");
 
+    private static final Set<Item> ITEM_TYPES = Set.of(Items.ENCHANTED_BOOK);
+
+    @Override
+    public Optional<Pattern> getNamePattern() {
+        return Optional.of(TOME_PATTERN);
+    }
+
+    @Override
+    public Optional<Set<Item>> getItemTypes() {
+        return Optional.of(ITEM_TYPES);
+    }
+
     @Override
     public ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name) {
         if (itemStack.getItem() != Items.ENCHANTED_BOOK) return null;
@@ -11,14 +11,29 @@ import com.wynntils.handlers.item.ItemAnnotator;
 import com.wynntils.models.activities.type.ActivityInfo;
 import com.wynntils.models.activities.type.ActivityType;
 import com.wynntils.models.items.items.gui.ActivityItem;
+import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
 
 public final class ActivityAnnotator implements ItemAnnotator {
     private static final Pattern ACTIVITY_PATTERN = Pattern.compile("^§(?<color>.)(?<name>.+)§7 \\[(?<type>.+)\\]$");
 
+    private static final Set<Item> ITEM_TYPES = Set.of(Items.GOLDEN_AXE, Items.GOLDEN_PICKAXE, Items.GOLDEN_HOE);
+
+    @Override
+    public Optional<Pattern> getNamePattern() {
+        return Optional.of(ACTIVITY_PATTERN);
+    }
+
+    @Override
+    public Optional<Set<Item>> getItemTypes() {
+        return Optional.of(ITEM_TYPES);
+    }
+
     @Override
     public ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name) {
         if (itemStack.getItem() != Items.GOLDEN_AXE
@@ -10,6 +10,7 @@ import com.wynntils.handlers.item.ItemAnnotator;
 import com.wynntils.models.items.items.gui.ArchetypeAbilitiesItem;
 import com.wynntils.utils.mc.LoreUtils;
 import com.wynntils.utils.type.CappedValue;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import net.minecraft.world.item.ItemStack;
@@ -20,6 +21,11 @@ public final class ArchetypeAbilitiesAnnotator implements ItemAnnotator {
     // Test suite: https://regexr.com/7h133
     private static final Pattern ARCHETYPE_PATTERN = Pattern.compile("^§a✔ §7Unlocked Abilities: §f(\\d+)§7/(\\d+)$");
 
+    @Override
+    public Optional<Pattern> getNamePattern() {
+        return Optional.of(ARCHETYPE_NAME);
+    }
+
     @Override
     public ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name) {
         Matcher nameMatcher = name.getMatcher(ARCHETYPE_NAME);
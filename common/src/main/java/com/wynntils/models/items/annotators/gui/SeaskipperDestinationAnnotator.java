@@ -8,6 +8,7 @@ import com.wynntils.core.text.StyledText;
 import com.wynntils.handlers.item.ItemAnnotation;
 import com.wynntils.handlers.item.ItemAnnotator;
 import com.wynntils.models.items.items.gui.SeaskipperDestinationItem;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import net.minecraft.world.item.ItemStack;
@@ -15,6 +16,11 @@ import net.minecraft.world.item.ItemStack;
 public final class SeaskipperDestinationAnnotator implements ItemAnnotator {
     private static final Pattern SEASKIPPER_PASS_PATTERN = Pattern.compile("^§b(.*) Pass §7for §b(\\d+)²$");
 
+    @Override
+    public Optional<Pattern> getNamePattern() {
+        return Optional.of(SEASKIPPER_PASS_PATTERN);
+    }
+
     @Override
     public ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name) {
         Matcher matcher = name.getMatcher(SEASKIPPER_PASS_PATTERN);
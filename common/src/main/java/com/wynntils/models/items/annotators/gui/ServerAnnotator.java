@@ -8,6 +8,7 @@ import com.wynntils.core.text.StyledText;
 import com.wynntils.handlers.item.ItemAnnotation;
 import com.wynntils.handlers.item.ItemAnnotator;
 import com.wynntils.models.items.items.gui.ServerItem;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import net.minecraft.world.item.ItemStack;
@@ -15,6 +16,11 @@ import net.minecraft.world.item.ItemStack;
 public final class ServerAnnotator implements ItemAnnotator {
     private static final Pattern SERVER_ITEM_PATTERN = Pattern.compile("§[baec]§lWorld (\\d+)(§3 \\(Recommended\\))?");
 
+    @Override
+    public Optional<Pattern> getNamePattern() {
+        return Optional.of(SERVER_ITEM_PATTERN);
+    }
+
     @Override
     public ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name) {
         Matcher matcher = name.getMatcher(SERVER_ITEM_PATTERN);
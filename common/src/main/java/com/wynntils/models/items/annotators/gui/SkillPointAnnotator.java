@@ -10,6 +10,7 @@ import com.wynntils.handlers.item.ItemAnnotator;
 import com.wynntils.models.elements.type.Skill;
 import com.wynntils.models.items.items.gui.SkillPointItem;
 import com.wynntils.utils.mc.LoreUtils;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import net.minecraft.world.item.ItemStack;
@@ -20,6 +21,11 @@ public final class SkillPointAnnotator implements ItemAnnotator {
     // Test suite: https://regexr.com/7h0to
     private static final Pattern LORE_PATTERN = Pattern.compile("^[ À]+§7(-?\\d+) points?§r[ À]+§6-?\\d+ points?$");
 
+    @Override
+    public Optional<Pattern> getNamePattern() {
+        return Optional.of(SKILL_POINT_PATTERN);
+    }
+
     @Override
     public ItemAnnotation getAnnotation(ItemStack itemStack, StyledText name) {
         Matcher matcher = name.getMatcher(SKILL_POINT_PATTERN);
@@ -4,9 +4,10 @@
  */
 package com.wynntils.models.territories;
 
-import com.google.common.reflect.TypeToken;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import com.wynntils.core.WynntilsMod;
 import com.wynntils.core.components.Managers;
 import com.wynntils.core.components.Model;
@@ -14,16 +15,17 @@ import com.wynntils.core.net.Download;
 import com.wynntils.core.net.UrlId;
 import com.wynntils.core.text.StyledText;
 import com.wynntils.mc.event.AdvancementUpdateEvent;
+import com.wynntils.models.territories.event.TerritoryEvent;
 import com.wynntils.models.territories.profile.TerritoryProfile;
 import com.wynntils.services.map.pois.TerritoryPoi;
 import com.wynntils.services.map.type.TerritoryDefenseFilterType;
-import java.lang.reflect.Type;
+import com.wynntils.utils.type.SpatialGrid;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -43,15 +45,25 @@ public final class TerritoryModel extends Model {
             .registerTypeHierarchyAdapter(TerritoryProfile.class, new TerritoryProfile.TerritoryDeserializer())
             .create();
     private static final int MAX_ERRORS = 5;
+    private static final int TERRITORY_GRID_CELL_SIZE = 256;
 
     // This is territory POIs as returned by the advancement from Wynncraft
     private final Map<String, TerritoryPoi> territoryPoiMap = new ConcurrentHashMap<>();
 
     // This is the profiles as downloaded from Athena
-    private Map<String, TerritoryProfile> territoryProfileMap = new HashMap<>();
+    private final Map<String, TerritoryProfile> territoryProfileMap = new ConcurrentHashMap<>();
+
+    // The JSON the profiles were created from, so only profiles that changed have to be created again
+    private final Map<String, JsonElement> territoryProfileJsonMap = new HashMap<>();
+
+    // The names of the profiles, indexed by their area
+    private SpatialGrid<String> territoryProfileGrid = new SpatialGrid<>(TERRITORY_GRID_CELL_SIZE);
+
+    // The result of the last position lookup, which is usually still the right one
+    private TerritoryProfile lastTerritoryProfile = null;
 
     // This is just a cache of TerritoryPois created for all territoryProfileMap values
-    private Set<TerritoryPoi> allTerritoryPois = new HashSet<>();
+    private final Map<String, TerritoryPoi> allTerritoryPois = new ConcurrentHashMap<>();
 
     private final ScheduledExecutorService timerExecutor = new ScheduledThreadPoolExecutor(1);
     private final ScheduledFuture<?> timerFuture;
@@ -72,8 +84,8 @@ public final class TerritoryModel extends Model {
         return territoryProfileMap.keySet().stream();
     }
 
-    public Set<TerritoryPoi> getTerritoryPois() {
-        return allTerritoryPois;
+    public Collection<TerritoryPoi> getTerritoryPois() {
+        return allTerritoryPois.values();
     }
 
     public List<TerritoryPoi> getTerritoryPoisFromAdvancement() {
@@ -100,10 +112,23 @@ public final class TerritoryModel extends Model {
     }
 
     public TerritoryProfile getTerritoryProfileForPosition(Position position) {
-        return territoryProfileMap.values().stream()
-                .filter(profile -> profile.insideArea(position))
-                .findFirst()
-                .orElse(null);
+        // The player has not left the last territory, and the profiles were not replaced since
+        TerritoryProfile lastProfile = lastTerritoryProfile;
+        if (lastProfile != null
+                && lastProfile.insideArea(position)
+                && territoryProfileMap.get(lastProfile.getName()) == lastProfile) {
+            return lastProfile;
+        }
+
+        for (String name : territoryProfileGrid.query((float) position.x(), (float) position.z())) {
+            TerritoryProfile profile = territoryProfileMap.get(name);
+            if (profile != null && profile.insideArea(position)) {
+                lastTerritoryProfile = profile;
+                return profile;
+            }
+        }
+
+        return null;
     }
 
     public void reset() {
@@ -168,12 +193,7 @@ public final class TerritoryModel extends Model {
                 json -> {
                     if (!json.has("territories")) return;
 
-                    Type type = new TypeToken<HashMap<String, TerritoryProfile>>() {}.getType();
-                    territoryProfileMap = TERRITORY_PROFILE_GSON.fromJson(json.get("territories"), type);
-                    allTerritoryPois = territoryProfileMap.values().stream()
-                            .map(TerritoryPoi::new)
-                            .collect(Collectors.toSet());
-                    // TODO: Add events if territories changed
+                    applyTerritoryProfiles(json.getAsJsonObject("territories"));
                 },
                 onError -> {
                     errorCount++;
@@ -183,4 +203,65 @@ public final class TerritoryModel extends Model {
                     }
                 });
     }
+
+    // Only the territories that changed since the last update are parsed, and get a new profile and POI
+    private synchronized void applyTerritoryProfiles(JsonObject territories) {
+        List<TerritoryEvent> events = new ArrayList<>();
+        boolean areasChanged = false;
+
+        for (Map.Entry<String, JsonElement> entry : territories.entrySet()) {
+            String name = entry.getKey();
+            if (entry.getValue().equals(territoryProfileJsonMap.get(name))) continue;
+
+            TerritoryProfile profile = TERRITORY_PROFILE_GSON.fromJson(entry.getValue(), TerritoryProfile.class);
+            territoryProfileJsonMap.put(name, entry.getValue());
+
+            TerritoryProfile oldProfile = territoryProfileMap.put(name, profile);
+            allTerritoryPois.put(name, new TerritoryPoi(profile));
+
+            if (oldProfile == null || !hasSameArea(oldProfile, profile)) {
+                areasChanged = true;
+            }
+
+            if (oldProfile != null && !oldProfile.getGuild().equals(profile.getGuild())) {
+                events.add(new TerritoryEvent.Captured(name, oldProfile, profile));
+            } else {
+                events.add(new TerritoryEvent.Updated(name, oldProfile, profile));
+            }
+        }
+
+        Iterator<String> iterator = territoryProfileJsonMap.keySet().iterator();
+        while (iterator.hasNext()) {
+            String name = iterator.next();
+            if (territories.has(name)) continue;
+
+            iterator.remove();
+            allTerritoryPois.remove(name);
+            events.add(new TerritoryEvent.Removed(name, territoryProfileMap.remove(name)));
+            areasChanged = true;
+        }
+
+        if (areasChanged) {
+            territoryProfileGrid = createTerritoryProfileGrid(territoryProfileMap.values());
+        }
+
+        events.forEach(WynntilsMod::postEventOnMainThread);
+    }
+
+    private static boolean hasSameArea(TerritoryProfile profile, TerritoryProfile otherProfile) {
+        return profile.getStartX() == otherProfile.getStartX()
+                && profile.getStartZ() == otherProfile.getStartZ()
+                && profile.getEndX() == otherProfile.getEndX()
+                && profile.getEndZ() == otherProfile.getEndZ();
+    }
+
+    private static SpatialGrid<String> createTerritoryProfileGrid(Collection<TerritoryProfile> profiles) {
+        SpatialGrid<String> grid = new SpatialGrid<>(TERRITORY_GRID_CELL_SIZE);
+
+        for (TerritoryProfile profile : profiles) {
+            grid.add(profile.getName(), profile.getStartX(), profile.getStartZ(), profile.getEndX(), profile.getEndZ());
+        }
+
+        return grid;
+    }
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright © Wynntils 2023.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.models.territories.event;
+
+import com.wynntils.models.territories.profile.TerritoryProfile;
+import net.minecraftforge.eventbus.api.Event;
+
+/**
+ * These events correspond to changes of the territory profiles in TerritoryModel.
+ * Only territories that changed since the last update fire an event.
+ */
+public abstract class TerritoryEvent extends Event {
+    private final String territoryName;
+
+    protected TerritoryEvent(String territoryName) {
+        this.territoryName = territoryName;
+    }
+
+    public String getTerritoryName() {
+        return territoryName;
+    }
+
+    /**
+     * Fired when a territory is added, or any of its data changed
+     * @field oldProfile the profile before the update, or null if the territory is new
+     * @field newProfile the profile after the update
+     */
+    public static class Updated extends TerritoryEvent {
+        private final TerritoryProfile oldProfile;
+        private final TerritoryProfile newProfile;
+
+        public Updated(String territoryName, TerritoryProfile oldProfile, TerritoryProfile newProfile) {
+            super(territoryName);
+            this.oldProfile = oldProfile;
+            this.newProfile = newProfile;
+        }
+
+        public TerritoryProfile getOldProfile() {
+            return oldProfile;
+        }
+
+        public TerritoryProfile getNewProfile() {
+            return newProfile;
+        }
+    }
+
+    /**
+     * Fired instead of {@link Updated} when a territory is owned by another guild after the update
+     */
+    public static class Captured extends Updated {
+        public Captured(String territoryName, TerritoryProfile oldProfile, TerritoryProfile newProfile) {
+            super(territoryName, oldProfile, newProfile);
+        }
+
+        public String getOldGuild() {
+            return getOldProfile().getGuild();
+        }
+
+        public String getNewGuild() {
+            return getNewProfile().getGuild();
+        }
+    }
+
+    /**
+     * Fired when a territory is not part of the territory list anymore
+     * @field oldProfile the last profile of the territory
+     */
+    public static class Removed extends TerritoryEvent {
+        private final TerritoryProfile oldProfile;
+
+        public Removed(String territoryName, TerritoryProfile oldProfile) {
+            super(territoryName);
+            this.oldProfile = oldProfile;
+        }
+
+        public TerritoryProfile getOldProfile() {
+            return oldProfile;
+        }
+    }
+}
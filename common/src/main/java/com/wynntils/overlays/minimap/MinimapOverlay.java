@@ -7,7 +7,6 @@ package com.wynntils.overlays.minimap;
 import com.mojang.blaze3d.platform.Window;
 import com.mojang.blaze3d.systems.RenderSystem;
 import com.mojang.blaze3d.vertex.PoseStack;
-import com.wynntils.core.components.Managers;
 import com.wynntils.core.components.Models;
 import com.wynntils.core.components.Services;
 import com.wynntils.core.consumers.overlays.Overlay;
@@ -16,10 +15,10 @@ import com.wynntils.core.consumers.overlays.OverlaySize;
 import com.wynntils.core.persisted.Persisted;
 import com.wynntils.core.persisted.config.Config;
 import com.wynntils.core.text.StyledText;
-import com.wynntils.features.map.MainMapFeature;
 import com.wynntils.services.map.MapTexture;
 import com.wynntils.services.map.pois.PlayerMiniMapPoi;
 import com.wynntils.services.map.pois.Poi;
+import com.wynntils.services.map.pois.ServicePoi;
 import com.wynntils.services.map.pois.WaypointPoi;
 import com.wynntils.utils.MathUtils;
 import com.wynntils.utils.StringUtils;
@@ -38,8 +37,8 @@ import com.wynntils.utils.render.type.PointerType;
 import com.wynntils.utils.render.type.TextShadow;
 import com.wynntils.utils.render.type.VerticalAlignment;
 import com.wynntils.utils.type.BoundingBox;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Stream;
 import net.minecraft.client.gui.Font;
 import net.minecraft.client.renderer.MultiBufferSource;
 
@@ -216,25 +215,28 @@ public class MinimapOverlay extends Overlay {
 
         float currentZoom = 1f / scale.get();
 
-        Stream<? extends Poi> poisToRender = Services.Poi.getServicePois();
+        // Only look at the static pois around the visible part of the map
+        List<Poi> pois = new ArrayList<>(Services.Poi.getStaticPoisInArea(textureBoundingBox, poiScale.get(), false));
 
-        poisToRender = Stream.concat(
-                poisToRender,
+        // Remote players are drawn above the service pois, and below all other pois. The static pois are ordered by
+        // kind, with the service pois first.
+        int playerIndex = 0;
+        while (playerIndex < pois.size() && pois.get(playerIndex) instanceof ServicePoi) {
+            playerIndex++;
+        }
+        pois.addAll(
+                playerIndex,
                 Services.Hades.getHadesUsers()
                         .filter(user -> (user.isPartyMember() && renderRemotePartyPlayers.get())
                                 || (user.isMutualFriend() && renderRemoteFriendPlayers.get()))
-                        .map(PlayerMiniMapPoi::new));
+                        .map(PlayerMiniMapPoi::new)
+                        .toList());
 
-        poisToRender = Stream.concat(poisToRender, Services.Poi.getCombatPois());
-        poisToRender = Stream.concat(
-                poisToRender, Managers.Feature.getFeatureInstance(MainMapFeature.class).customPois.get().stream());
-        poisToRender = Stream.concat(poisToRender, Services.Poi.getProvidedCustomPois().stream());
-        poisToRender = Stream.concat(poisToRender, Models.Marker.getAllPois());
+        Models.Marker.getAllPois().forEach(pois::add);
 
         MultiBufferSource.BufferSource bufferSource =
                 McUtils.mc().renderBuffers().bufferSource();
 
-        Poi[] pois = poisToRender.toArray(Poi[]::new);
         for (Poi poi : pois) {
             float dX = (poi.getLocation().getX() - (float) playerX) / scale.get();
             float dZ = (poi.getLocation().getZ() - (float) playerZ) / scale.get();
@@ -114,7 +114,7 @@ public class LootrunPathButton extends WynntilsButton {
     public void onPress() {}
 
     private void tryDeleteLootrun() {
-        File file = new File(Services.LootrunPaths.LOOTRUNS, lootrun.name() + ".json");
+        File file = Services.LootrunPaths.getLootrunFile(lootrun.name());
         file.delete();
         screen.reloadElements();
     }
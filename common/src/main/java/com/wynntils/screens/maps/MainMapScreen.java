@@ -276,12 +276,13 @@ public final class MainMapScreen extends AbstractMapScreen {
     }
 
     private void renderPois(PoseStack poseStack, int mouseX, int mouseY) {
-        Stream<? extends Poi> pois = Services.Poi.getServicePois();
+        BoundingBox textureBoundingBox =
+                BoundingBox.centered(mapCenterX, mapCenterZ, width / currentZoom, height / currentZoom);
+        float poiScale = Managers.Feature.getFeatureInstance(MainMapFeature.class).poiScale.get();
+
+        // Only look at the static pois around the visible part of the map
+        Stream<? extends Poi> pois = Services.Poi.getStaticPoisInArea(textureBoundingBox, poiScale, true).stream();
 
-        pois = Stream.concat(pois, Services.Poi.getCombatPois());
-        pois = Stream.concat(pois, Services.Poi.getLabelPois());
-        pois = Stream.concat(pois, Managers.Feature.getFeatureInstance(MainMapFeature.class).customPois.get().stream());
-        pois = Stream.concat(pois, Services.Poi.getProvidedCustomPois().stream());
         pois = Stream.concat(pois, Models.Marker.getAllPois());
         pois = Stream.concat(
                 pois,
@@ -302,15 +303,7 @@ public final class MainMapScreen extends AbstractMapScreen {
             pois = Stream.concat(pois, Models.Territory.getTerritoryPois().stream());
         }
 
-        renderPois(
-                pois.collect(Collectors.toList()),
-                poseStack,
-                BoundingBox.centered(mapCenterX, mapCenterZ, width / currentZoom, height / currentZoom),
-                Managers.Feature.getFeatureInstance(MainMapFeature.class)
-                        .poiScale
-                        .get(),
-                mouseX,
-                mouseY);
+        renderPois(pois.collect(Collectors.toList()), poseStack, textureBoundingBox, poiScale, mouseX, mouseY);
     }
 
     @Override
@@ -317,10 +317,12 @@ public final class PoiManagementScreen extends WynntilsScreen {
     }
 
     private void undoDelete() {
-        Managers.Feature.getFeatureInstance(MainMapFeature.class)
-                .customPois
+        HiddenConfig<List<CustomPoi>> customPoiConfig =
+                Managers.Feature.getFeatureInstance(MainMapFeature.class).customPois;
+        customPoiConfig
                 .get()
                 .add(deletedIndexes.get(deletedIndexes.size() - 1), deletedPois.get(deletedPois.size() - 1));
+        customPoiConfig.touched();
 
         deletedIndexes.remove(deletedIndexes.size() - 1);
         deletedPois.remove(deletedPois.size() - 1);
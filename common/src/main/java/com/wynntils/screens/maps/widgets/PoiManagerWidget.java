@@ -182,7 +182,7 @@ public class PoiManagerWidget extends AbstractWidget {
         pois.remove(poi);
         pois.add(indexToSet, poi);
         managementScreen.populatePois();
-        Managers.Config.saveConfig();
+        Managers.Feature.getFeatureInstance(MainMapFeature.class).customPois.touched();
     }
 
     @Override
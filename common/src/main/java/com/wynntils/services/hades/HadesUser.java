@@ -5,28 +5,47 @@
 package com.wynntils.services.hades;
 
 import com.wynntils.hades.protocol.packets.server.HSPacketUpdateMutual;
+import com.wynntils.services.hades.type.HadesUserSnapshot;
 import com.wynntils.utils.colors.CommonColors;
 import com.wynntils.utils.colors.CustomColor;
 import com.wynntils.utils.mc.type.PoiLocation;
 import com.wynntils.utils.type.CappedValue;
+import java.util.Arrays;
 import java.util.UUID;
-
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A player that shares their status through Hades.
+ * <p>
+ * Updates are received on the network thread, and stored as immutable snapshots. The latest snapshots are replaced
+ * as a whole on every update, so readers never see a partially applied update. Positions are interpolated between
+ * the snapshots, about one update interval behind the latest one, so remote players move smoothly between updates.
+ * The interval is averaged over several updates, so jitter in the arrival of updates does not make players stutter.
+ */
 public class HadesUser {
+    private static final int SNAPSHOT_COUNT = 3;
+    private static final long MAX_INTERPOLATION_DELAY_MILLIS = 3000;
+    // Each new update interval moves the render delay this fraction of the way
+    private static final int INTERVAL_SMOOTHING = 4;
+    // After an update, the rendered position moves to the updated track over this time, instead of jumping
+    private static final long BLEND_MILLIS = 250;
+    // When an update is late, the movement is continued for at most this long
+    private static final long MAX_EXTRAPOLATION_MILLIS = 500;
+    // Players that moved further than this between two updates have teleported, so they are not moved across the map
+    private static final float TELEPORT_DISTANCE = 64;
+
     private final UUID uuid;
     private final String name;
 
-    private boolean isPartyMember;
-    private boolean isMutualFriend;
-    private boolean isGuildMember;
-    private float x, y, z;
-    private PoiLocation poiLocation;
-    private CappedValue health;
-    private CappedValue mana;
+    private volatile Track track;
+
+    private PoiLocation mapLocation;
 
     public HadesUser(HSPacketUpdateMutual packet) {
         uuid = packet.getUser();
         name = packet.getName();
 
+        this.track = new Track(new HadesUserSnapshot[0], 0, null);
         this.updateFromPacket(packet);
     }
 
@@ -35,18 +54,8 @@ public class HadesUser {
         this.uuid = UUID.fromString("8667ba71-b85a-4004-af54-457a9734eed7"); // Steve
         this.name = name;
 
-        this.x = 0;
-        this.y = 0;
-        this.z = 0;
-
-        this.poiLocation = new PoiLocation((int) x, (int) y, (int) z);
-
-        this.isGuildMember = false;
-        this.isMutualFriend = false;
-        this.isPartyMember = true;
-
-        this.health = health;
-        this.mana = mana;
+        HadesUserSnapshot snapshot = new HadesUserSnapshot(0, 0, 0, 0, health, mana, true, false, false);
+        this.track = new Track(new HadesUserSnapshot[] {snapshot}, 0, null);
     }
 
     public UUID getUuid() {
@@ -58,60 +67,178 @@ public class HadesUser {
     }
 
     public boolean isPartyMember() {
-        return isPartyMember;
+        return getLatestSnapshot().isPartyMember();
     }
 
     public boolean isMutualFriend() {
-        return isMutualFriend;
+        return getLatestSnapshot().isMutualFriend();
     }
 
     public boolean isGuildMember() {
-        return isGuildMember;
+        return getLatestSnapshot().isGuildMember();
     }
 
     public float getX() {
-        return x;
+        return getInterpolated(track, System.currentTimeMillis(), HadesUserSnapshot::x);
     }
 
     public float getY() {
-        return y;
+        return getInterpolated(track, System.currentTimeMillis(), HadesUserSnapshot::y);
     }
 
     public float getZ() {
-        return z;
+        return getInterpolated(track, System.currentTimeMillis(), HadesUserSnapshot::z);
     }
 
     public PoiLocation getMapLocation() {
-        return poiLocation;
+        Track current = track;
+        long now = System.currentTimeMillis();
+        int x = (int) getInterpolated(current, now, HadesUserSnapshot::x);
+        int y = (int) getInterpolated(current, now, HadesUserSnapshot::y);
+        int z = (int) getInterpolated(current, now, HadesUserSnapshot::z);
+
+        // Only create a new location when the player moved to another block
+        PoiLocation location = mapLocation;
+        if (location == null
+                || location.getX() != x
+                || location.getZ() != z
+                || location.getY().orElse(y) != y) {
+            location = new PoiLocation(x, y, z);
+            mapLocation = location;
+        }
+
+        return location;
     }
 
     public CappedValue getHealth() {
-        return health;
+        return getLatestSnapshot().health();
     }
 
     public CappedValue getMana() {
-        return mana;
+        return getLatestSnapshot().mana();
     }
 
     public void updateFromPacket(HSPacketUpdateMutual packet) {
-        this.x = packet.getX();
-        this.y = packet.getY();
-        this.z = packet.getZ();
-        this.poiLocation = new PoiLocation((int) x, (int) y, (int) z);
-
-        this.health = new CappedValue(packet.getHealth(), packet.getMaxHealth());
-        this.mana = new CappedValue(packet.getMana(), packet.getMaxMana());
-
-        this.isPartyMember = packet.isPartyMember();
-        this.isMutualFriend = packet.isMutualFriend();
-        this.isGuildMember = packet.isGuildMember();
+        Track currentTrack = track;
+        HadesUserSnapshot[] current = currentTrack.snapshots();
+        HadesUserSnapshot latest = current.length == 0 ? null : current[current.length - 1];
+        long now = System.currentTimeMillis();
+
+        HadesUserSnapshot snapshot = new HadesUserSnapshot(
+                now,
+                packet.getX(),
+                packet.getY(),
+                packet.getZ(),
+                getCappedValue(latest == null ? null : latest.health(), packet.getHealth(), packet.getMaxHealth()),
+                getCappedValue(latest == null ? null : latest.mana(), packet.getMana(), packet.getMaxMana()),
+                packet.isPartyMember(),
+                packet.isMutualFriend(),
+                packet.isGuildMember());
+
+        // Updates of a user are only received on one thread, so replacing the track can't lose an update
+        int kept = Math.min(current.length, SNAPSHOT_COUNT - 1);
+        HadesUserSnapshot[] updated = Arrays.copyOfRange(current, current.length - kept, current.length + 1);
+        updated[kept] = snapshot;
+
+        if (latest == null) {
+            track = new Track(updated, 0, null);
+            return;
+        }
+
+        long interval = Math.min(now - latest.time(), MAX_INTERPOLATION_DELAY_MILLIS);
+        long renderDelay = current.length == 1
+                ? interval
+                : currentTrack.renderDelay() + (interval - currentTrack.renderDelay()) / INTERVAL_SMOOTHING;
+
+        // Continue from where the user is rendered right now. A changed delay or a late update would otherwise make
+        // the user jump, most visibly back from an extrapolated position.
+        HadesUserSnapshot blendFrom = new HadesUserSnapshot(
+                now,
+                getInterpolated(currentTrack, now, HadesUserSnapshot::x),
+                getInterpolated(currentTrack, now, HadesUserSnapshot::y),
+                getInterpolated(currentTrack, now, HadesUserSnapshot::z),
+                snapshot.health(),
+                snapshot.mana(),
+                snapshot.isPartyMember(),
+                snapshot.isMutualFriend(),
+                snapshot.isGuildMember());
+        if (isTeleport(blendFrom, snapshot)) {
+            blendFrom = null;
+        }
+
+        track = new Track(updated, renderDelay, blendFrom);
     }
 
     public CustomColor getRelationColor() {
-        if (isPartyMember) return CommonColors.YELLOW;
-        if (isMutualFriend) return CommonColors.GREEN;
-        if (isGuildMember) return CommonColors.LIGHT_BLUE;
+        HadesUserSnapshot latest = getLatestSnapshot();
+        if (latest.isPartyMember()) return CommonColors.YELLOW;
+        if (latest.isMutualFriend()) return CommonColors.GREEN;
+        if (latest.isGuildMember()) return CommonColors.LIGHT_BLUE;
 
         return CustomColor.NONE;
     }
+
+    private HadesUserSnapshot getLatestSnapshot() {
+        HadesUserSnapshot[] current = track.snapshots();
+        return current[current.length - 1];
+    }
+
+    private static float getInterpolated(Track track, long now, ToDoubleFunction<HadesUserSnapshot> axis) {
+        // Render about one update interval in the past, so there is usually a snapshot on both sides of that time
+        float position = getInterpolated(track.snapshots(), now - track.renderDelay(), axis);
+
+        HadesUserSnapshot blendFrom = track.blendFrom();
+        if (blendFrom == null) return position;
+
+        long elapsed = now - blendFrom.time();
+        if (elapsed >= BLEND_MILLIS) return position;
+
+        double start = axis.applyAsDouble(blendFrom);
+        return (float) (start + (position - start) * elapsed / BLEND_MILLIS);
+    }
+
+    private static float getInterpolated(
+            HadesUserSnapshot[] current, long renderTime, ToDoubleFunction<HadesUserSnapshot> axis) {
+        if (current.length == 1) return (float) axis.applyAsDouble(current[0]);
+
+        for (int i = current.length - 1; i > 0; i--) {
+            HadesUserSnapshot from = current[i - 1];
+            HadesUserSnapshot to = current[i];
+            if (renderTime < from.time()) continue;
+
+            long duration = to.time() - from.time();
+            if (duration <= 0 || isTeleport(from, to)) return (float) axis.applyAsDouble(to);
+
+            // Past the latest snapshot, the last movement is continued for a short time
+            long elapsed = Math.min(renderTime - from.time(), duration + MAX_EXTRAPOLATION_MILLIS);
+            double progress = (double) elapsed / duration;
+
+            double start = axis.applyAsDouble(from);
+            return (float) (start + (axis.applyAsDouble(to) - start) * progress);
+        }
+
+        return (float) axis.applyAsDouble(current[0]);
+    }
+
+    private static boolean isTeleport(HadesUserSnapshot from, HadesUserSnapshot to) {
+        float dx = to.x() - from.x();
+        float dy = to.y() - from.y();
+        float dz = to.z() - from.z();
+        return dx * dx + dy * dy + dz * dz > TELEPORT_DISTANCE * TELEPORT_DISTANCE;
+    }
+
+    // Reuses the previous value if it did not change, as it usually doesn't
+    private static CappedValue getCappedValue(CappedValue previous, int current, int max) {
+        if (previous != null && previous.current() == current && previous.max() == max) return previous;
+
+        return new CappedValue(current, max);
+    }
+
+    /**
+     * The snapshots of a user, oldest first, and how to render them. Never modified after being published.
+     * @param renderDelay how far in the past the snapshots are rendered
+     * @param blendFrom the position the user was rendered at when the latest snapshot arrived, or null if the user
+     *                  should be rendered at the track right away
+     */
+    private record Track(HadesUserSnapshot[] snapshots, long renderDelay, HadesUserSnapshot blendFrom) {}
 }
@@ -0,0 +1,22 @@
+/*
+ * Copyright © Wynntils 2023.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.services.hades.type;
+
+import com.wynntils.utils.type.CappedValue;
+
+/**
+ * The state of a Hades user, as received in one update.
+ * {@code time} is the time the update was received, in milliseconds.
+ */
+public record HadesUserSnapshot(
+        long time,
+        float x,
+        float y,
+        float z,
+        CappedValue health,
+        CappedValue mana,
+        boolean isPartyMember,
+        boolean isMutualFriend,
+        boolean isGuildMember) {}
@@ -0,0 +1,277 @@
+/*
+ * Copyright © Wynntils 2023.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.services.lootrunpaths;
+
+import com.wynntils.services.lootrunpaths.type.ColoredPath;
+import com.wynntils.services.lootrunpaths.type.ColoredPosition;
+import com.wynntils.services.lootrunpaths.type.LootrunNote;
+import com.wynntils.utils.MathUtils;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.CubicSpline;
+import net.minecraft.util.ToFloatFunction;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.phys.Vec3;
+import org.joml.Vector2d;
+
+/**
+ * Compiles a lootrun that is being recorded, by only processing the points that were added since the last compile.
+ * <p>
+ * The result is the same as {@link LootrunCompiler#compile(UncompiledLootrunPath, boolean)} for recordings, with the
+ * exception of the simplified path, which is simplified in windows of {@link #SIMPLIFY_WINDOW} points.
+ * <p>
+ * The spline between two points depends on the slope at both of them, and the slope at the last point is only known
+ * once the next point is recorded. So the samples of the last spline segment are provisional, and are replaced when
+ * the next point is added.
+ */
+final class IncrementalLootrunCompiler {
+    private static final float SAMPLE_STEP = 1f / LootrunCompiler.SAMPLE_RATE;
+    private static final int SIMPLIFY_WINDOW = 256;
+
+    private final UncompiledLootrunPath recording;
+    private final String name;
+
+    private Long2ObjectMap<List<ColoredPath>> pointsByChunk = new Long2ObjectOpenHashMap<>();
+    // Chunks whose paths changed since the last poll, so their render meshes can be rebuilt
+    private final LongSet changedChunks = new LongOpenHashSet();
+    private final List<Vector2d> simplifiedPath = new ArrayList<>();
+    private Long2ObjectMap<Set<BlockPos>> chests;
+    private Long2ObjectMap<List<LootrunNote>> notes;
+
+    private int color;
+    private int compiledPoints = 0;
+    private boolean markersChanged = true;
+
+    // Spline state of the current part of the path
+    private Knot previousKnot = null;
+    private Knot lastKnot = null;
+    private float nextSampleDistance = 0f;
+
+    // Chunk bucketing state
+    private ColoredPath lastLocationList = null;
+    private long lastChunk = 0L;
+    private Vec3 lastSample = null;
+
+    // State needed to remove the provisional samples again
+    private final LongArrayList provisionalChunks = new LongArrayList();
+    private ColoredPath provisionalLocationList = null;
+    private int provisionalLocationListSize = 0;
+    private long provisionalLastChunk = 0L;
+    private Vec3 provisionalLastSample = null;
+    private boolean hasProvisionalSamples = false;
+
+    // Simplification state, only the points since the last full window are simplified again
+    private final List<Vector2d> simplifyWindow = new ArrayList<>();
+    private int simplifiedPrefixSize = 0;
+
+    IncrementalLootrunCompiler(UncompiledLootrunPath recording, int color) {
+        this.recording = recording;
+        this.name = LootrunCompiler.getLootrunName(recording, true);
+        this.color = color;
+    }
+
+    LootrunPathInstance compile(int color) {
+        List<Vec3> points = recording.path().points();
+
+        // The recording colour changed, so everything has to be sampled again
+        if (this.color != color) {
+            this.color = color;
+            reset();
+        }
+
+        if (compiledPoints < points.size()) {
+            for (int i = compiledPoints; i < points.size(); i++) {
+                addPoint(points.get(i));
+            }
+            compiledPoints = points.size();
+
+            updateSimplifiedPath();
+        }
+
+        if (markersChanged) {
+            chests = LootrunCompiler.getChests(recording.chests());
+            notes = LootrunCompiler.getNotes(recording.notes());
+            markersChanged = false;
+        }
+
+        return new LootrunPathInstance(name, recording.path(), simplifiedPath, pointsByChunk, chests, notes);
+    }
+
+    void invalidateMarkers() {
+        markersChanged = true;
+    }
+
+    LongSet pollChangedChunks() {
+        LongSet result = new LongOpenHashSet(changedChunks);
+        changedChunks.clear();
+        return result;
+    }
+
+    private void reset() {
+        // A new map, so anything that depends on the old one notices the change
+        pointsByChunk = new Long2ObjectOpenHashMap<>();
+        changedChunks.clear();
+        simplifiedPath.clear();
+        compiledPoints = 0;
+
+        previousKnot = null;
+        lastKnot = null;
+        nextSampleDistance = 0f;
+
+        lastLocationList = null;
+        lastSample = null;
+        hasProvisionalSamples = false;
+
+        simplifyWindow.clear();
+        simplifiedPrefixSize = 0;
+    }
+
+    private void addPoint(Vec3 point) {
+        simplifyWindow.add(new Vector2d(point.x, point.z));
+
+        // A big gap starts a new part of the path, the provisional samples of the old part are final now
+        if (lastKnot == null || lastKnot.position().distanceTo(point) >= 32) {
+            hasProvisionalSamples = false;
+            previousKnot = null;
+            lastKnot = new Knot(point, 0f, 0f, 0f, 0f);
+            nextSampleDistance = 0f;
+            return;
+        }
+
+        removeProvisionalSamples();
+
+        Vec3 position = lastKnot.position();
+        float distance = lastKnot.distance();
+        distance += position.distanceTo(point);
+
+        Knot knot = new Knot(
+                position,
+                lastKnot.distance(),
+                (float) ((point.x - position.x) / position.distanceTo(point)),
+                (float) ((point.y - position.y) / position.distanceTo(point)),
+                (float) ((point.z - position.z) / position.distanceTo(point)));
+
+        if (previousKnot != null) {
+            nextSampleDistance = sampleSegment(previousKnot, knot, nextSampleDistance);
+        }
+
+        Knot newKnot = new Knot(point, distance, 0f, 0f, 0f);
+
+        saveProvisionalState();
+        sampleSegment(knot, newKnot, nextSampleDistance);
+
+        previousKnot = knot;
+        lastKnot = newKnot;
+    }
+
+    // Samples the spline between the two knots, and returns the distance of the next sample
+    private float sampleSegment(Knot start, Knot end, float sampleDistance) {
+        CubicSpline.Builder<Float, ToFloatFunction<Float>> builderX = CubicSpline.builder(ToFloatFunction.IDENTITY);
+        CubicSpline.Builder<Float, ToFloatFunction<Float>> builderY = CubicSpline.builder(ToFloatFunction.IDENTITY);
+        CubicSpline.Builder<Float, ToFloatFunction<Float>> builderZ = CubicSpline.builder(ToFloatFunction.IDENTITY);
+        builderX.addPoint(start.distance(), (float) start.position().x, start.slopeX());
+        builderY.addPoint(start.distance(), (float) start.position().y, start.slopeY());
+        builderZ.addPoint(start.distance(), (float) start.position().z, start.slopeZ());
+        builderX.addPoint(end.distance(), (float) end.position().x, end.slopeX());
+        builderY.addPoint(end.distance(), (float) end.position().y, end.slopeY());
+        builderZ.addPoint(end.distance(), (float) end.position().z, end.slopeZ());
+        CubicSpline<Float, ToFloatFunction<Float>> splineX = builderX.build();
+        CubicSpline<Float, ToFloatFunction<Float>> splineY = builderY.build();
+        CubicSpline<Float, ToFloatFunction<Float>> splineZ = builderZ.build();
+
+        for (; sampleDistance < end.distance(); sampleDistance += SAMPLE_STEP) {
+            addSample(new Vec3(
+                    splineX.apply(sampleDistance), splineY.apply(sampleDistance), splineZ.apply(sampleDistance)));
+        }
+
+        return sampleDistance;
+    }
+
+    private void addSample(Vec3 position) {
+        ColoredPosition coloredPosition = new ColoredPosition(position, color);
+        long currentChunk = ChunkPos.asLong(MathUtils.floor(position.x()) >> 4, MathUtils.floor(position.z()) >> 4);
+
+        if (lastLocationList == null || currentChunk != lastChunk) {
+            if (lastLocationList != null && position.distanceTo(lastSample) < 32) {
+                lastLocationList.points().add(coloredPosition);
+                changedChunks.add(lastChunk);
+            }
+
+            lastChunk = currentChunk;
+            lastLocationList = new ColoredPath(new ArrayList<>());
+            pointsByChunk.computeIfAbsent(currentChunk, chunk -> new ArrayList<>()).add(lastLocationList);
+
+            if (hasProvisionalSamples) {
+                provisionalChunks.add(currentChunk);
+            }
+        }
+
+        lastLocationList.points().add(coloredPosition);
+        lastSample = position;
+        changedChunks.add(currentChunk);
+    }
+
+    private void saveProvisionalState() {
+        hasProvisionalSamples = true;
+        provisionalChunks.clear();
+        provisionalLocationList = lastLocationList;
+        provisionalLocationListSize = lastLocationList == null ? 0 : lastLocationList.points().size();
+        provisionalLastChunk = lastChunk;
+        provisionalLastSample = lastSample;
+    }
+
+    private void removeProvisionalSamples() {
+        if (!hasProvisionalSamples) return;
+
+        // The paths that were started by provisional samples are always the last ones of their chunk
+        for (int i = provisionalChunks.size() - 1; i >= 0; i--) {
+            long chunk = provisionalChunks.getLong(i);
+            List<ColoredPath> paths = pointsByChunk.get(chunk);
+            paths.remove(paths.size() - 1);
+            changedChunks.add(chunk);
+            if (paths.isEmpty()) {
+                pointsByChunk.remove(chunk);
+            }
+        }
+
+        if (provisionalLocationList != null) {
+            List<ColoredPosition> points = provisionalLocationList.points();
+            points.subList(provisionalLocationListSize, points.size()).clear();
+            changedChunks.add(provisionalLastChunk);
+        }
+
+        lastLocationList = provisionalLocationList;
+        lastChunk = provisionalLastChunk;
+        lastSample = provisionalLastSample;
+        hasProvisionalSamples = false;
+    }
+
+    private void updateSimplifiedPath() {
+        // Douglas-Peucker keeps both ends, so the last point of a full window is the first point of the next one
+        if (simplifyWindow.size() > SIMPLIFY_WINDOW) {
+            List<Vector2d> simplified = LootrunCompiler.simplify(simplifyWindow, LootrunCompiler.SIMPLIFY_TOLERANCE);
+
+            simplifiedPath.subList(simplifiedPrefixSize, simplifiedPath.size()).clear();
+            simplifiedPath.addAll(simplified.subList(0, simplified.size() - 1));
+            simplifiedPrefixSize = simplifiedPath.size();
+
+            Vector2d last = simplifyWindow.get(simplifyWindow.size() - 1);
+            simplifyWindow.clear();
+            simplifyWindow.add(last);
+        }
+
+        simplifiedPath.subList(simplifiedPrefixSize, simplifiedPath.size()).clear();
+        simplifiedPath.addAll(LootrunCompiler.simplify(simplifyWindow, LootrunCompiler.SIMPLIFY_TOLERANCE));
+    }
+
+    private record Knot(Vec3 position, float distance, float slopeX, float slopeY, float slopeZ) {}
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright © Wynntils 2023.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.services.lootrunpaths;
+
+import com.wynntils.core.WynntilsMod;
+import com.wynntils.services.lootrunpaths.type.ColoredPath;
+import com.wynntils.services.lootrunpaths.type.ColoredPosition;
+import com.wynntils.services.lootrunpaths.type.LootrunNote;
+import com.wynntils.services.lootrunpaths.type.LootrunPath;
+import com.wynntils.utils.FileUtils;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.PositionImpl;
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.phys.Vec3;
+import org.joml.Vector2d;
+
+/**
+ * A binary cache of compiled lootrun files, so unchanged lootruns can be loaded without being parsed and compiled.
+ * <p>
+ * An entry is only used if the size and modification time of the lootrun file, and the settings the lootrun was
+ * compiled with, are still the same.
+ */
+final class LootrunCompiledCache {
+    private static final File CACHE_DIR = WynntilsMod.getModStorageDir("lootruncache");
+    private static final String CACHE_FILE_SUFFIX = ".bin";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final int MAGIC = 0x574c5243; // "WLRC"
+    private static final int VERSION = 2;
+
+    LootrunCompiledCache() {
+        FileUtils.mkdir(CACHE_DIR);
+    }
+
+    Optional<LootrunPathInstance> get(File lootrunFile, LootrunCompiler.CompileSettings compileSettings) {
+        File cacheFile = getCacheFile(lootrunFile);
+        if (!cacheFile.exists()) return Optional.empty();
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new InflaterInputStream(new FileInputStream(cacheFile))))) {
+            if (in.readInt() != MAGIC
+                    || in.readInt() != VERSION
+                    || in.readLong() != lootrunFile.length()
+                    || in.readLong() != lootrunFile.lastModified()
+                    || !readCompileSettings(in).equals(compileSettings)) {
+                return Optional.empty();
+            }
+
+            return Optional.of(readInstance(in));
+        } catch (IOException | RuntimeException e) {
+            WynntilsMod.warn("Could not read compiled lootrun cache " + cacheFile.getName(), e);
+            return Optional.empty();
+        }
+    }
+
+    void put(File lootrunFile, LootrunCompiler.CompileSettings compileSettings, LootrunPathInstance instance) {
+        File cacheFile = getCacheFile(lootrunFile);
+
+        // Every write gets its own temporary file, as the same lootrun might be loaded by two refreshes at once
+        File tempFile;
+        try {
+            tempFile = Files.createTempFile(CACHE_DIR.toPath(), cacheFile.getName(), TEMP_FILE_SUFFIX).toFile();
+        } catch (IOException e) {
+            WynntilsMod.warn("Could not write compiled lootrun cache " + cacheFile.getName(), e);
+            return;
+        }
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new DeflaterOutputStream(new FileOutputStream(tempFile))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(lootrunFile.length());
+            out.writeLong(lootrunFile.lastModified());
+            writeCompileSettings(out, compileSettings);
+
+            writeInstance(out, instance);
+        } catch (IOException e) {
+            WynntilsMod.warn("Could not write compiled lootrun cache " + cacheFile.getName(), e);
+            FileUtils.deleteFile(tempFile);
+            return;
+        }
+
+        // Replace the old entry in one step, so a concurrent reader never sees a partial file
+        try {
+            Files.move(
+                    tempFile.toPath(),
+                    cacheFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            WynntilsMod.warn("Could not write compiled lootrun cache " + cacheFile.getName(), e);
+            FileUtils.deleteFile(tempFile);
+        }
+    }
+
+    /**
+     * Deletes the cache entries of lootrun files that do not exist anymore.
+     */
+    void removeStaleEntries(List<File> lootrunFiles) {
+        Set<String> cacheFileNames = new HashSet<>();
+        for (File lootrunFile : lootrunFiles) {
+            cacheFileNames.add(getCacheFile(lootrunFile).getName());
+        }
+
+        File[] files = CACHE_DIR.listFiles();
+        for (File file : files != null ? files : new File[0]) {
+            // Temporary files might still be written by a running load
+            if (file.getName().endsWith(TEMP_FILE_SUFFIX)) continue;
+
+            if (!cacheFileNames.contains(file.getName())) {
+                FileUtils.deleteFile(file);
+            }
+        }
+    }
+
+    private static File getCacheFile(File lootrunFile) {
+        return new File(CACHE_DIR, lootrunFile.getName() + CACHE_FILE_SUFFIX);
+    }
+
+    private static void writeCompileSettings(DataOutputStream out, LootrunCompiler.CompileSettings settings)
+            throws IOException {
+        out.writeBoolean(settings.rainbow());
+        out.writeInt(settings.cycleDistance());
+        out.writeInt(settings.color());
+    }
+
+    private static LootrunCompiler.CompileSettings readCompileSettings(DataInputStream in) throws IOException {
+        return new LootrunCompiler.CompileSettings(in.readBoolean(), in.readInt(), in.readInt());
+    }
+
+    private static void writeInstance(DataOutputStream out, LootrunPathInstance instance) throws IOException {
+        out.writeUTF(instance.name());
+
+        List<Vec3> path = instance.path().points();
+        out.writeInt(path.size());
+        for (Vec3 point : path) {
+            writeVec3(out, point);
+        }
+
+        List<Vector2d> simplifiedPath = instance.simplifiedPath();
+        out.writeInt(simplifiedPath.size());
+        for (Vector2d point : simplifiedPath) {
+            out.writeDouble(point.x);
+            out.writeDouble(point.y);
+        }
+
+        out.writeInt(instance.points().size());
+        for (Long2ObjectMap.Entry<List<ColoredPath>> entry : instance.points().long2ObjectEntrySet()) {
+            out.writeLong(entry.getLongKey());
+            out.writeInt(entry.getValue().size());
+            for (ColoredPath coloredPath : entry.getValue()) {
+                out.writeInt(coloredPath.points().size());
+                for (ColoredPosition position : coloredPath.points()) {
+                    writeVec3(out, position.position());
+                    out.writeInt(position.color());
+                }
+            }
+        }
+
+        out.writeInt(instance.chests().size());
+        for (Long2ObjectMap.Entry<Set<BlockPos>> entry : instance.chests().long2ObjectEntrySet()) {
+            out.writeLong(entry.getLongKey());
+            out.writeInt(entry.getValue().size());
+            for (BlockPos chest : entry.getValue()) {
+                out.writeLong(chest.asLong());
+            }
+        }
+
+        out.writeInt(instance.notes().size());
+        for (Long2ObjectMap.Entry<List<LootrunNote>> entry : instance.notes().long2ObjectEntrySet()) {
+            out.writeLong(entry.getLongKey());
+            out.writeInt(entry.getValue().size());
+            for (LootrunNote note : entry.getValue()) {
+                out.writeDouble(note.position().x());
+                out.writeDouble(note.position().y());
+                out.writeDouble(note.position().z());
+                writeString(out, Component.Serializer.toJson(note.component()));
+            }
+        }
+    }
+
+    private static LootrunPathInstance readInstance(DataInputStream in) throws IOException {
+        String name = in.readUTF();
+
+        int pathSize = in.readInt();
+        List<Vec3> path = new ArrayList<>(pathSize);
+        for (int i = 0; i < pathSize; i++) {
+            path.add(readVec3(in));
+        }
+
+        int simplifiedPathSize = in.readInt();
+        List<Vector2d> simplifiedPath = new ArrayList<>(simplifiedPathSize);
+        for (int i = 0; i < simplifiedPathSize; i++) {
+            simplifiedPath.add(new Vector2d(in.readDouble(), in.readDouble()));
+        }
+
+        int pointChunks = in.readInt();
+        Long2ObjectMap<List<ColoredPath>> points = new Long2ObjectOpenHashMap<>(pointChunks);
+        for (int i = 0; i < pointChunks; i++) {
+            long chunk = in.readLong();
+            int pathCount = in.readInt();
+            List<ColoredPath> coloredPaths = new ArrayList<>(pathCount);
+            for (int j = 0; j < pathCount; j++) {
+                int positionCount = in.readInt();
+                List<ColoredPosition> positions = new ArrayList<>(positionCount);
+                for (int k = 0; k < positionCount; k++) {
+                    positions.add(new ColoredPosition(readVec3(in), in.readInt()));
+                }
+                coloredPaths.add(new ColoredPath(positions));
+            }
+            points.put(chunk, coloredPaths);
+        }
+
+        int chestChunks = in.readInt();
+        Long2ObjectMap<Set<BlockPos>> chests = new Long2ObjectOpenHashMap<>(chestChunks);
+        for (int i = 0; i < chestChunks; i++) {
+            long chunk = in.readLong();
+            int chestCount = in.readInt();
+            Set<BlockPos> chunkChests = new HashSet<>();
+            for (int j = 0; j < chestCount; j++) {
+                chunkChests.add(BlockPos.of(in.readLong()));
+            }
+            chests.put(chunk, chunkChests);
+        }
+
+        int noteChunks = in.readInt();
+        Long2ObjectMap<List<LootrunNote>> notes = new Long2ObjectOpenHashMap<>(noteChunks);
+        for (int i = 0; i < noteChunks; i++) {
+            long chunk = in.readLong();
+            int noteCount = in.readInt();
+            List<LootrunNote> chunkNotes = new ArrayList<>(noteCount);
+            for (int j = 0; j < noteCount; j++) {
+                PositionImpl position = new PositionImpl(in.readDouble(), in.readDouble(), in.readDouble());
+                chunkNotes.add(new LootrunNote(position, Component.Serializer.fromJson(readString(in))));
+            }
+            notes.put(chunk, chunkNotes);
+        }
+
+        return new LootrunPathInstance(name, new LootrunPath(path), simplifiedPath, points, chests, notes);
+    }
+
+    private static void writeVec3(DataOutputStream out, Vec3 vec) throws IOException {
+        out.writeDouble(vec.x);
+        out.writeDouble(vec.y);
+        out.writeDouble(vec.z);
+    }
+
+    private static Vec3 readVec3(DataInputStream in) throws IOException {
+        return new Vec3(in.readDouble(), in.readDouble(), in.readDouble());
+    }
+
+    // writeUTF is limited to 64KB, which a note with a lot of formatting could exceed
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
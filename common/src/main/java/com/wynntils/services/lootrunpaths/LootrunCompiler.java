@@ -38,8 +38,15 @@ public final class LootrunCompiler {
             0x3f00ff,
             ChatFormatting.DARK_PURPLE.getColor());
 
+    static final float SAMPLE_RATE = 10f;
+    static final double SIMPLIFY_TOLERANCE = 0.5;
+
     public static LootrunPathInstance compile(UncompiledLootrunPath uncompiled, boolean recording) {
-        Long2ObjectMap<List<ColoredPath>> points = generatePointsByChunk(uncompiled.path(), recording);
+        return compile(uncompiled, recording, CompileSettings.fromFeature(recording));
+    }
+
+    static LootrunPathInstance compile(UncompiledLootrunPath uncompiled, boolean recording, CompileSettings settings) {
+        Long2ObjectMap<List<ColoredPath>> points = generatePointsByChunk(uncompiled.path(), settings);
         Long2ObjectMap<Set<BlockPos>> chests = getChests(uncompiled.chests());
         Long2ObjectMap<List<LootrunNote>> notes = getNotes(uncompiled.notes());
 
@@ -47,17 +54,17 @@ public final class LootrunCompiler {
         return new LootrunPathInstance(
                 lootrunName,
                 uncompiled.path(),
-                generateSimplifiedPoints(uncompiled.path(), 0.5),
+                generateSimplifiedPoints(uncompiled.path(), SIMPLIFY_TOLERANCE),
                 points,
                 chests,
                 notes);
     }
 
-    private static String getLootrunName(UncompiledLootrunPath uncompiled, boolean recording) {
+    static String getLootrunName(UncompiledLootrunPath uncompiled, boolean recording) {
         if (recording) return "recorded_lootrun";
         if (uncompiled.file() == null) return "lootrun";
 
-        return uncompiled.file().getName().replace(".json", "");
+        return LootrunPathFileParser.getLootrunName(uncompiled.file());
     }
 
     private static List<LootrunPath> sample(LootrunPath raw, float sampleRate) {
@@ -115,11 +122,9 @@ public final class LootrunCompiler {
         return result;
     }
 
-    private static Long2ObjectMap<List<ColoredPath>> generatePointsByChunk(LootrunPath raw, boolean recording) {
-        float sampleRate = 10f;
-
+    private static Long2ObjectMap<List<ColoredPath>> generatePointsByChunk(LootrunPath raw, CompileSettings settings) {
         List<List<Vec3>> sampled =
-                sample(raw, sampleRate).stream().map(LootrunPath::points).toList();
+                sample(raw, SAMPLE_RATE).stream().map(LootrunPath::points).toList();
         List<Vec3> positions = sampled.stream().flatMap(List::stream).toList();
 
         ColoredPath locationsList = new ColoredPath(new ArrayList<>());
@@ -135,14 +140,8 @@ public final class LootrunCompiler {
         for (int i = 0; i < positions.size(); i++) {
             Vec3 position = positions.get(i);
 
-            if (Managers.Feature.getFeatureInstance(LootrunFeature.class)
-                            .rainbowLootRun
-                            .get()
-                    && !recording) {
-                int cycleDistance = Managers.Feature.getFeatureInstance(LootrunFeature.class)
-                        .cycleDistance
-                        .get();
-                int cycle = 10 * cycleDistance;
+            if (settings.rainbow()) {
+                int cycle = 10 * settings.cycleDistance();
                 int parts = i % cycle;
                 float done = (float) parts / (float) cycle;
 
@@ -167,19 +166,7 @@ public final class LootrunCompiler {
 
                 locationsList.points().add(new ColoredPosition(position, usedColor | 0xff000000));
             } else {
-                locationsList
-                        .points()
-                        .add(new ColoredPosition(
-                                position,
-                                recording
-                                        ? Managers.Feature.getFeatureInstance(LootrunFeature.class)
-                                                .recordingPathColor
-                                                .get()
-                                                .asInt()
-                                        : Managers.Feature.getFeatureInstance(LootrunFeature.class)
-                                                .activePathColor
-                                                .get()
-                                                .asInt()));
+                locationsList.points().add(new ColoredPosition(position, settings.color()));
             }
         }
 
@@ -220,7 +207,7 @@ public final class LootrunCompiler {
     }
 
     // Douglas-Peucker implementation for shape simplification
-    private static List<Vector2d> simplify(List<Vector2d> points, double epsilon) {
+    static List<Vector2d> simplify(List<Vector2d> points, double epsilon) {
         // can't simplify the shape when having too few points, so return it as it is
         if (points.size() < 3) {
             return points;
@@ -274,7 +261,7 @@ public final class LootrunCompiler {
         return closestPoint.distance(point);
     }
 
-    private static Long2ObjectMap<Set<BlockPos>> getChests(Set<BlockPos> chests) {
+    static Long2ObjectMap<Set<BlockPos>> getChests(Set<BlockPos> chests) {
         Long2ObjectMap<Set<BlockPos>> result = new Long2ObjectOpenHashMap<>();
         for (BlockPos pos : chests) {
             Set<BlockPos> addTo = result.computeIfAbsent(new ChunkPos(pos).toLong(), (chunk) -> new HashSet<>());
@@ -283,7 +270,7 @@ public final class LootrunCompiler {
         return result;
     }
 
-    private static Long2ObjectMap<List<LootrunNote>> getNotes(List<LootrunNote> notes) {
+    static Long2ObjectMap<List<LootrunNote>> getNotes(List<LootrunNote> notes) {
         Long2ObjectMap<List<LootrunNote>> result = new Long2ObjectOpenHashMap<>();
         for (LootrunNote note : notes) {
             ChunkPos chunk = new ChunkPos(PosUtils.newBlockPos(note.position()));
@@ -292,4 +279,22 @@ public final class LootrunCompiler {
         }
         return result;
     }
+
+    /**
+     * The settings that change the result of compiling a lootrun. They are read once, so a lootrun that is compiled
+     * in the background is compiled with the same settings it is cached with.
+     */
+    record CompileSettings(boolean rainbow, int cycleDistance, int color) {
+        static CompileSettings fromFeature(boolean recording) {
+            LootrunFeature feature = Managers.Feature.getFeatureInstance(LootrunFeature.class);
+            if (recording) {
+                return new CompileSettings(false, 0, feature.recordingPathColor.get().asInt());
+            }
+
+            return new CompileSettings(
+                    feature.rainbowLootRun.get(),
+                    feature.cycleDistance.get(),
+                    feature.activePathColor.get().asInt());
+        }
+    }
 }
@@ -7,14 +7,25 @@ package com.wynntils.services.lootrunpaths;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.wynntils.core.WynntilsMod;
 import com.wynntils.services.lootrunpaths.type.LootrunNote;
 import com.wynntils.services.lootrunpaths.type.LootrunPath;
 import com.wynntils.services.lootrunpaths.type.LootrunSaveResult;
+import com.wynntils.utils.FileUtils;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.text.DateFormat;
 import java.util.ArrayList;
 import java.util.Date;
@@ -22,6 +33,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Position;
 import net.minecraft.core.PositionImpl;
@@ -29,6 +42,39 @@ import net.minecraft.network.chat.Component;
 import net.minecraft.world.phys.Vec3;
 
 public final class LootrunPathFileParser {
+    public static final String JSON_EXTENSION = ".json";
+    public static final String BINARY_EXTENSION = ".wlr";
+
+    private static final int BINARY_MAGIC = 0x574c5250; // "WLRP"
+    private static final int BINARY_VERSION = 1;
+    // Coordinates are stored as deltas in 1/4096 blocks, if that represents them exactly
+    private static final double COORDINATE_SCALE = 4096d;
+    private static final int TAG_DELTA = 0;
+    private static final int TAG_RAW = 1;
+
+    public static boolean isLootrunFile(File file) {
+        String name = file.getName();
+        return name.endsWith(JSON_EXTENSION) || name.endsWith(BINARY_EXTENSION);
+    }
+
+    public static String getLootrunName(File file) {
+        String name = file.getName();
+        if (name.endsWith(JSON_EXTENSION)) return name.substring(0, name.length() - JSON_EXTENSION.length());
+        if (name.endsWith(BINARY_EXTENSION)) return name.substring(0, name.length() - BINARY_EXTENSION.length());
+
+        return name;
+    }
+
+    public static UncompiledLootrunPath read(File file) throws IOException {
+        if (file.getName().endsWith(BINARY_EXTENSION)) {
+            return readBinary(file);
+        }
+
+        try (FileReader reader = new FileReader(file, StandardCharsets.UTF_8)) {
+            return readJson(file, JsonParser.parseReader(reader).getAsJsonObject());
+        }
+    }
+
     public static UncompiledLootrunPath readJson(File file, JsonObject json) {
         JsonArray points = json.getAsJsonArray("points");
         LootrunPath pointsList = new LootrunPath(new ArrayList<>());
@@ -134,4 +180,212 @@ public final class LootrunPathFileParser {
             return LootrunSaveResult.ERROR_SAVING;
         }
     }
+
+    /**
+     * Reads a lootrun in the binary format, which is a compact alternative to the JSON format.
+     * <p>
+     * After a header, the deflated body contains the points, the chests and the notes. Point coordinates are stored
+     * as varint deltas to the previous point, in 1/4096 blocks, if that represents them exactly, and as raw doubles
+     * otherwise. So converting between the formats is lossless.
+     */
+    public static UncompiledLootrunPath readBinary(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != BINARY_MAGIC) {
+                throw new IOException("Not a binary lootrun file: " + file.getName());
+            }
+            int version = in.readInt();
+            if (version != BINARY_VERSION) {
+                throw new IOException("Unsupported binary lootrun version " + version + ": " + file.getName());
+            }
+
+            DataInputStream body = new DataInputStream(new BufferedInputStream(new InflaterInputStream(in)));
+
+            int pointCount = readVarInt(body);
+            LootrunPath path = new LootrunPath(new ArrayList<>(pointCount));
+            double x = 0;
+            double y = 0;
+            double z = 0;
+            for (int i = 0; i < pointCount; i++) {
+                int tags = body.readUnsignedByte();
+                x = readCoordinate(body, x, tags & 3);
+                y = readCoordinate(body, y, (tags >> 2) & 3);
+                z = readCoordinate(body, z, (tags >> 4) & 3);
+                path.points().add(new Vec3(x, y, z));
+            }
+
+            int chestCount = readVarInt(body);
+            Set<BlockPos> chests = new HashSet<>();
+            for (int i = 0; i < chestCount; i++) {
+                chests.add(BlockPos.of(body.readLong()));
+            }
+
+            int noteCount = readVarInt(body);
+            List<LootrunNote> notes = new ArrayList<>(noteCount);
+            for (int i = 0; i < noteCount; i++) {
+                Position position = new PositionImpl(body.readDouble(), body.readDouble(), body.readDouble());
+                notes.add(new LootrunNote(position, Component.Serializer.fromJson(readString(body))));
+            }
+
+            return new UncompiledLootrunPath(path, chests, notes, file);
+        }
+    }
+
+    public static LootrunSaveResult writeBinary(UncompiledLootrunPath activeLootrun, File file) {
+        try {
+            boolean result = file.createNewFile();
+
+            if (!result) {
+                return LootrunSaveResult.ERROR_ALREADY_EXISTS;
+            }
+        } catch (IOException ex) {
+            return LootrunSaveResult.ERROR_SAVING;
+        }
+
+        // The lootrun is written to a temporary file first, so a failed write does not leave a truncated lootrun
+        File tempFile = null;
+        try {
+            File dir = file.getAbsoluteFile().getParentFile();
+            tempFile = Files.createTempFile(dir.toPath(), file.getName(), ".tmp").toFile();
+
+            try (DataOutputStream out =
+                    new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                out.writeInt(BINARY_MAGIC);
+                out.writeInt(BINARY_VERSION);
+
+                DeflaterOutputStream deflater = new DeflaterOutputStream(out);
+                DataOutputStream body = new DataOutputStream(deflater);
+
+                List<Vec3> points = activeLootrun.path().points();
+                writeVarInt(body, points.size());
+                double x = 0;
+                double y = 0;
+                double z = 0;
+                for (Vec3 point : points) {
+                    writePoint(body, x, y, z, point);
+                    x = point.x;
+                    y = point.y;
+                    z = point.z;
+                }
+
+                writeVarInt(body, activeLootrun.chests().size());
+                for (BlockPos chest : activeLootrun.chests()) {
+                    body.writeLong(chest.asLong());
+                }
+
+                writeVarInt(body, activeLootrun.notes().size());
+                for (LootrunNote note : activeLootrun.notes()) {
+                    body.writeDouble(note.position().x());
+                    body.writeDouble(note.position().y());
+                    body.writeDouble(note.position().z());
+                    writeString(body, Component.Serializer.toJson(note.component()));
+                }
+
+                body.flush();
+                deflater.finish();
+            }
+
+            Files.move(
+                    tempFile.toPath(),
+                    file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            return LootrunSaveResult.SAVED;
+        } catch (IOException ex) {
+            if (tempFile != null) {
+                FileUtils.deleteFile(tempFile);
+            }
+            FileUtils.deleteFile(file);
+            return LootrunSaveResult.ERROR_SAVING;
+        }
+    }
+
+    private static void writePoint(DataOutputStream out, double prevX, double prevY, double prevZ, Vec3 point)
+            throws IOException {
+        long deltaX = getExactDelta(prevX, point.x);
+        long deltaY = getExactDelta(prevY, point.y);
+        long deltaZ = getExactDelta(prevZ, point.z);
+
+        int tags = getTag(deltaX) | (getTag(deltaY) << 2) | (getTag(deltaZ) << 4);
+        out.writeByte(tags);
+
+        writeCoordinate(out, point.x, deltaX);
+        writeCoordinate(out, point.y, deltaY);
+        writeCoordinate(out, point.z, deltaZ);
+    }
+
+    // Returns the delta in 1/4096 blocks, or Long.MIN_VALUE if reading it back would not give the exact value
+    private static long getExactDelta(double previous, double value) {
+        double scaledDelta = (value - previous) * COORDINATE_SCALE;
+        if (Math.abs(scaledDelta) > (1L << 52)) return Long.MIN_VALUE;
+
+        long delta = Math.round(scaledDelta);
+        double readBack = previous + delta / COORDINATE_SCALE;
+        return Double.doubleToLongBits(readBack) == Double.doubleToLongBits(value) ? delta : Long.MIN_VALUE;
+    }
+
+    private static int getTag(long delta) {
+        return delta == Long.MIN_VALUE ? TAG_RAW : TAG_DELTA;
+    }
+
+    private static void writeCoordinate(DataOutputStream out, double value, long delta) throws IOException {
+        if (delta == Long.MIN_VALUE) {
+            out.writeDouble(value);
+        } else {
+            writeVarLong(out, (delta << 1) ^ (delta >> 63));
+        }
+    }
+
+    private static double readCoordinate(DataInputStream in, double previous, int tag) throws IOException {
+        return switch (tag) {
+            case TAG_DELTA -> {
+                long zigZag = readVarLong(in);
+                long delta = (zigZag >>> 1) ^ -(zigZag & 1);
+                yield previous + delta / COORDINATE_SCALE;
+            }
+            case TAG_RAW -> in.readDouble();
+            default -> throw new IOException("Invalid coordinate tag " + tag);
+        };
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        writeVarLong(out, value & 0xffffffffL);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        long value = readVarLong(in);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IOException("Invalid count " + value);
+        }
+        return (int) value;
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7fL) != 0) {
+            out.writeByte((int) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Varint is too long");
+    }
+
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readVarInt(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
 }
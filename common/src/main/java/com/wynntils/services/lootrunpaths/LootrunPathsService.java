@@ -4,14 +4,14 @@
  */
 package com.wynntils.services.lootrunpaths;
 
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.wynntils.core.WynntilsMod;
 import com.wynntils.core.components.Managers;
 import com.wynntils.core.components.Models;
 import com.wynntils.core.components.Service;
 import com.wynntils.core.components.Services;
+import com.wynntils.core.mod.type.ProfilingCategory;
 import com.wynntils.features.LootrunFeature;
 import com.wynntils.mc.event.PlayerInteractEvent;
 import com.wynntils.mc.event.RenderLevelEvent;
@@ -27,11 +27,14 @@ import com.wynntils.utils.FileUtils;
 import com.wynntils.utils.mc.McUtils;
 import com.wynntils.utils.mc.PosUtils;
 import java.io.File;
-import java.io.FileReader;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import net.minecraft.ChatFormatting;
 import net.minecraft.client.player.LocalPlayer;
 import net.minecraft.client.resources.language.I18n;
@@ -47,7 +50,21 @@ import net.minecraftforge.eventbus.api.SubscribeEvent;
 public final class LootrunPathsService extends Service {
     public static final File LOOTRUNS = WynntilsMod.getModStorageDir("lootruns");
 
-    private List<LootrunPathInstance> lootrunPathInstanceCache = new ArrayList<>();
+    // Lootrun files are independent of each other, so they are loaded in parallel
+    private static final ExecutorService LOADING_EXECUTOR = Executors.newFixedThreadPool(
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1)),
+            new ThreadFactoryBuilder()
+                    .setNameFormat("wynntils-lootrun-loader-%d")
+                    .setDaemon(true)
+                    .build());
+
+    private final LootrunCompiledCache compiledCache = new LootrunCompiledCache();
+
+    // Replaced as a whole when a lootrun is loaded, so readers never see a list that is being modified
+    private volatile List<LootrunPathInstance> lootrunPathInstanceCache = List.of();
+    // Incremented for every refresh, so lootruns of an outdated refresh are not published
+    private volatile int refreshGeneration = 0;
+    private final AtomicBoolean refreshEventScheduled = new AtomicBoolean();
 
     private UncompiledLootrunPath uncompiled = null;
 
@@ -56,9 +73,13 @@ public final class LootrunPathsService extends Service {
     private LootrunPathInstance lootrun = null;
     private LootrunPathInstance recordingCompiled = null;
     private UncompiledLootrunPath recording = null;
+    private IncrementalLootrunCompiler recordingCompiler = null;
 
     private RecordingInformation recordingInformation = null;
 
+    private final LootrunRenderCache lootrunRenderCache = new LootrunRenderCache();
+    private final LootrunRenderCache recordingRenderCache = new LootrunRenderCache();
+
     public LootrunPathsService() {
         super(List.of());
 
@@ -85,12 +106,13 @@ public final class LootrunPathsService extends Service {
 
     public int recompileLootrun(boolean saveToFile) {
         if (recording != null) {
+            recordingCompiler.invalidateMarkers();
             recordingInformation.setDirty(true);
         } else if (uncompiled != null) {
             lootrun = LootrunCompiler.compile(uncompiled, false);
             if (saveToFile && uncompiled.file() != null) {
                 LootrunSaveResult lootrunSaveResult =
-                        saveCurrentLootrun(uncompiled.file().getName().replace(".json", ""));
+                        saveCurrentLootrun(LootrunPathFileParser.getLootrunName(uncompiled.file()));
 
                 if (lootrunSaveResult == null) {
                     return 0;
@@ -115,6 +137,7 @@ public final class LootrunPathsService extends Service {
         uncompiled = null;
         recording = null;
         recordingCompiled = null;
+        recordingCompiler = null;
         recordingInformation = null;
     }
 
@@ -125,6 +148,7 @@ public final class LootrunPathsService extends Service {
         uncompiled = recording;
         recording = null;
         recordingCompiled = null;
+        recordingCompiler = null;
         recordingInformation = null;
     }
 
@@ -132,6 +156,7 @@ public final class LootrunPathsService extends Service {
         state = LootrunState.RECORDING;
         recording =
                 new UncompiledLootrunPath(new LootrunPath(new ArrayList<>()), new HashSet<>(), new ArrayList<>(), null);
+        recordingCompiler = new IncrementalLootrunCompiler(recording, getRecordingPathColor());
         recordingInformation = new RecordingInformation();
     }
 
@@ -139,38 +164,143 @@ public final class LootrunPathsService extends Service {
         return lootrunPathInstanceCache;
     }
 
+    /**
+     * Loads all lootrun files in the background. Lootruns are published one by one as they finish loading,
+     * and a {@link LootrunPathCacheRefreshEvent} is posted on the next tick.
+     */
     public void refreshLootrunCache() {
-        List<LootrunPathInstance> lootruns = new ArrayList<>();
+        List<File> lootrunFiles = new ArrayList<>();
 
         File[] files = LOOTRUNS.listFiles();
         for (File file : files != null ? files : new File[0]) {
-            if (file.getName().endsWith(".json")) {
-                try {
-                    FileReader reader = new FileReader(file, StandardCharsets.UTF_8);
-                    JsonObject json = JsonParser.parseReader(reader).getAsJsonObject();
-                    UncompiledLootrunPath uncompiled = LootrunPathFileParser.readJson(file, json);
-                    lootruns.add(LootrunCompiler.compile(uncompiled, false));
-                } catch (Exception e) {
-                    WynntilsMod.warn("Could not parse lootrun file.", e);
-                }
+            if (LootrunPathFileParser.isLootrunFile(file)) {
+                lootrunFiles.add(file);
             }
         }
 
-        lootrunPathInstanceCache = lootruns;
-        WynntilsMod.postEvent(new LootrunPathCacheRefreshEvent());
+        int generation;
+        synchronized (this) {
+            generation = ++refreshGeneration;
+            lootrunPathInstanceCache = List.of();
+        }
+        scheduleRefreshEvent();
+
+        compiledCache.removeStaleEntries(lootrunFiles);
+
+        // The settings are read once, as the compiled lootruns depend on them
+        LootrunCompiler.CompileSettings compileSettings = LootrunCompiler.CompileSettings.fromFeature(false);
+        for (File file : lootrunFiles) {
+            LOADING_EXECUTOR.submit(() -> loadCachedLootrun(file, compileSettings, generation));
+        }
+    }
+
+    private void loadCachedLootrun(File file, LootrunCompiler.CompileSettings compileSettings, int generation) {
+        // Skip the work if a newer refresh was started in the meantime
+        if (generation != refreshGeneration) return;
+
+        try {
+            LootrunPathInstance instance = compiledCache
+                    .get(file, compileSettings)
+                    .orElseGet(() -> {
+                        LootrunPathInstance compiled =
+                                LootrunCompiler.compile(readLootrunFile(file), false, compileSettings);
+                        compiledCache.put(file, compileSettings, compiled);
+                        return compiled;
+                    });
+
+            publishLootrun(instance, generation);
+        } catch (Exception e) {
+            WynntilsMod.warn("Could not parse lootrun file.", e);
+        }
+    }
+
+    private void publishLootrun(LootrunPathInstance instance, int generation) {
+        synchronized (this) {
+            if (generation != refreshGeneration) return;
+
+            List<LootrunPathInstance> lootruns = new ArrayList<>(lootrunPathInstanceCache);
+            lootruns.add(instance);
+            lootruns.sort(Comparator.comparing(LootrunPathInstance::name));
+            lootrunPathInstanceCache = List.copyOf(lootruns);
+        }
+
+        scheduleRefreshEvent();
+    }
+
+    // Lootruns are published from several threads, so the event is posted at most once per tick, on the main thread
+    private void scheduleRefreshEvent() {
+        if (!refreshEventScheduled.compareAndSet(false, true)) return;
+
+        Managers.TickScheduler.scheduleNextTick(() -> {
+            refreshEventScheduled.set(false);
+            WynntilsMod.postEvent(new LootrunPathCacheRefreshEvent());
+        });
+    }
+
+    private static UncompiledLootrunPath readLootrunFile(File file) {
+        try {
+            return LootrunPathFileParser.read(file);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read lootrun file " + file.getName(), e);
+        }
+    }
+
+    /**
+     * Returns the file of the lootrun with the given name, in either format. If there is no such lootrun,
+     * the returned file does not exist.
+     */
+    public File getLootrunFile(String name) {
+        File jsonFile = new File(LOOTRUNS, name + LootrunPathFileParser.JSON_EXTENSION);
+        if (jsonFile.exists()) return jsonFile;
+
+        File binaryFile = new File(LOOTRUNS, name + LootrunPathFileParser.BINARY_EXTENSION);
+        if (binaryFile.exists()) return binaryFile;
+
+        return jsonFile;
+    }
+
+    /**
+     * Converts a lootrun file between the JSON and the binary format. The original file is deleted on success.
+     */
+    public LootrunSaveResult convertLootrun(File file) {
+        UncompiledLootrunPath converted;
+        try {
+            converted = LootrunPathFileParser.read(file);
+        } catch (IOException | RuntimeException e) {
+            WynntilsMod.warn("Could not read lootrun file " + file.getName(), e);
+            return LootrunSaveResult.ERROR_SAVING;
+        }
+
+        String name = LootrunPathFileParser.getLootrunName(file);
+        LootrunSaveResult result;
+        File target;
+        if (file.getName().endsWith(LootrunPathFileParser.JSON_EXTENSION)) {
+            target = new File(LOOTRUNS, name + LootrunPathFileParser.BINARY_EXTENSION);
+            result = LootrunPathFileParser.writeBinary(converted, target);
+        } else {
+            target = new File(LOOTRUNS, name + LootrunPathFileParser.JSON_EXTENSION);
+            result = LootrunPathFileParser.writeJson(converted, target);
+        }
+
+        if (result != LootrunSaveResult.SAVED) return result;
+
+        FileUtils.deleteFile(file);
+
+        // Keep saving a loaded lootrun to the converted file
+        if (uncompiled != null && file.equals(uncompiled.file())) {
+            uncompiled = new UncompiledLootrunPath(uncompiled.path(), uncompiled.chests(), uncompiled.notes(), target);
+        }
+
+        return result;
     }
 
     private boolean loadFile(String fileName) {
-        String lootrunFileName = fileName + ".json";
-        File lootrunFile = new File(LOOTRUNS, lootrunFileName);
+        File lootrunFile = getLootrunFile(fileName);
         if (lootrunFile.exists()) {
             try {
-                FileReader file = new FileReader(lootrunFile, StandardCharsets.UTF_8);
-                JsonObject json = JsonParser.parseReader(file).getAsJsonObject();
-                uncompiled = LootrunPathFileParser.readJson(lootrunFile, json);
+                uncompiled = readLootrunFile(lootrunFile);
                 lootrun = LootrunCompiler.compile(uncompiled, false);
                 state = LootrunState.LOADED;
-                file.close();
                 return true;
             } catch (Exception e) {
                 WynntilsMod.error("Error when trying to load lootrun file.", e);
@@ -219,6 +349,8 @@ public final class LootrunPathsService extends Service {
         }
 
         points.points().removeAll(removed.points());
+        // The compiled path can't be undone, so compile the remaining path from the start
+        recordingCompiler = new IncrementalLootrunCompiler(recording, getRecordingPathColor());
         recordingInformation.setDirty(true);
         return LootrunUndoResult.SUCCESSFUL;
     }
@@ -271,7 +403,12 @@ public final class LootrunPathsService extends Service {
         UncompiledLootrunPath activeLootrun = getActiveLootrun();
         if (activeLootrun == null) return null;
 
-        File file = new File(LOOTRUNS, name + ".json");
+        // A binary lootrun with the same name would be shadowed by the new file
+        if (new File(LOOTRUNS, name + LootrunPathFileParser.BINARY_EXTENSION).exists()) {
+            return LootrunSaveResult.ERROR_ALREADY_EXISTS;
+        }
+
+        File file = new File(LOOTRUNS, name + LootrunPathFileParser.JSON_EXTENSION);
         uncompiled =
                 new UncompiledLootrunPath(activeLootrun.path(), activeLootrun.chests(), activeLootrun.notes(), file);
 
@@ -282,20 +419,33 @@ public final class LootrunPathsService extends Service {
     public void onRenderLastLevel(RenderLevelEvent.Post event) {
         PoseStack poseStack = event.getPoseStack();
 
+        long startTime = System.nanoTime();
         LootrunRenderer.renderLootrun(
                 poseStack,
+                event.getProjectionMatrix(),
                 lootrun,
                 Managers.Feature.getFeatureInstance(LootrunFeature.class)
                         .activePathColor
                         .get()
-                        .asInt());
+                        .asInt(),
+                lootrunRenderCache);
+        if (lootrun != null) {
+            Managers.Profiling.record(ProfilingCategory.WORLD_RENDERER, "Lootrun", startTime);
+        }
+
+        startTime = System.nanoTime();
         LootrunRenderer.renderLootrun(
                 poseStack,
+                event.getProjectionMatrix(),
                 recordingCompiled,
                 Managers.Feature.getFeatureInstance(LootrunFeature.class)
                         .recordingPathColor
                         .get()
-                        .asInt());
+                        .asInt(),
+                recordingRenderCache);
+        if (recordingCompiled != null) {
+            Managers.Profiling.record(ProfilingCategory.WORLD_RENDERER, "Recorded lootrun", startTime);
+        }
     }
 
     @SubscribeEvent
@@ -316,6 +466,7 @@ public final class LootrunPathsService extends Service {
         if (!Models.Container.isLootChest(event.getScreen())) return;
 
         recording.chests().add(recordingInformation.getLastChest());
+        recordingCompiler.invalidateMarkers();
         recordingInformation.setDirty(true);
         recordingInformation.setLastChest(null);
     }
@@ -337,11 +488,20 @@ public final class LootrunPathsService extends Service {
         }
 
         if (recordingInformation.isDirty()) {
-            recordingCompiled = LootrunCompiler.compile(recording, true);
+            // Only the points added since the last tick are compiled
+            recordingCompiled = recordingCompiler.compile(getRecordingPathColor());
+            recordingRenderCache.invalidateChunks(recordingCompiler.pollChangedChunks());
             recordingInformation.setDirty(false);
         }
     }
 
+    private int getRecordingPathColor() {
+        return Managers.Feature.getFeatureInstance(LootrunFeature.class)
+                .recordingPathColor
+                .get()
+                .asInt();
+    }
+
     private UncompiledLootrunPath getActiveLootrun() {
         UncompiledLootrunPath instance = null;
         if (recording != null) {
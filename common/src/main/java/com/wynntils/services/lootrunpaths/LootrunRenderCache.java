@@ -0,0 +1,117 @@
+/*
+ * Copyright © Wynntils 2023.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.services.lootrunpaths;
+
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.VertexBuffer;
+import com.wynntils.features.LootrunFeature;
+import com.wynntils.services.lootrunpaths.type.ColoredPath;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongCollection;
+import java.util.List;
+import java.util.function.Supplier;
+import net.minecraft.world.level.Level;
+
+/**
+ * The path meshes of a rendered lootrun, uploaded to the GPU once per chunk.
+ * <p>
+ * All meshes are released when the lootrun, the level or the path type changes. A single mesh is rebuilt when its
+ * chunk is invalidated, or when the loaded chunks around it change, as that changes which points have a block to
+ * be drawn on. Meshes of chunks that were not rendered in the last frame are released.
+ */
+final class LootrunRenderCache {
+    private final Long2ObjectMap<ChunkMesh> meshes = new Long2ObjectOpenHashMap<>();
+
+    private Long2ObjectMap<List<ColoredPath>> points = null;
+    private Level level = null;
+    private LootrunFeature.PathType pathType = null;
+    private int frame = 0;
+
+    void beginFrame(Long2ObjectMap<List<ColoredPath>> points, Level level, LootrunFeature.PathType pathType) {
+        if (this.points != points || this.level != level || this.pathType != pathType) {
+            clear();
+
+            this.points = points;
+            this.level = level;
+            this.pathType = pathType;
+        }
+
+        frame++;
+    }
+
+    void endFrame() {
+        meshes.values().removeIf(mesh -> {
+            if (mesh.lastFrame == frame) return false;
+
+            mesh.close();
+            return true;
+        });
+    }
+
+    /**
+     * Returns the mesh of the chunk, building it if it is missing or outdated.
+     * The builder returns null if there is nothing to draw in the chunk, in which case null is returned as well.
+     */
+    VertexBuffer getMesh(long chunk, int loadedNeighbours, Supplier<BufferBuilder.RenderedBuffer> builder) {
+        ChunkMesh mesh = meshes.get(chunk);
+
+        if (mesh == null || mesh.loadedNeighbours != loadedNeighbours) {
+            if (mesh != null) {
+                mesh.close();
+            }
+
+            mesh = new ChunkMesh(builder.get(), loadedNeighbours);
+            meshes.put(chunk, mesh);
+        }
+
+        mesh.lastFrame = frame;
+        return mesh.buffer;
+    }
+
+    void invalidateChunks(LongCollection chunks) {
+        for (long chunk : chunks) {
+            ChunkMesh mesh = meshes.remove(chunk);
+            if (mesh != null) {
+                mesh.close();
+            }
+        }
+    }
+
+    void clear() {
+        meshes.values().forEach(ChunkMesh::close);
+        meshes.clear();
+
+        points = null;
+        level = null;
+        pathType = null;
+    }
+
+    private static final class ChunkMesh {
+        private final VertexBuffer buffer;
+        private final int loadedNeighbours;
+        private int lastFrame;
+
+        private ChunkMesh(BufferBuilder.RenderedBuffer renderedBuffer, int loadedNeighbours) {
+            this.loadedNeighbours = loadedNeighbours;
+
+            if (renderedBuffer == null) {
+                this.buffer = null;
+                return;
+            }
+
+            this.buffer = new VertexBuffer();
+            buffer.bind();
+            buffer.upload(renderedBuffer);
+            VertexBuffer.unbind();
+        }
+
+        private void close() {
+            if (buffer != null) {
+                buffer.close();
+            }
+        }
+    }
+}
@@ -7,7 +7,9 @@ package com.wynntils.services.lootrunpaths;
 import com.mojang.blaze3d.systems.RenderSystem;
 import com.mojang.blaze3d.vertex.BufferBuilder;
 import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexBuffer;
 import com.mojang.blaze3d.vertex.VertexConsumer;
+import com.mojang.blaze3d.vertex.VertexFormat;
 import com.wynntils.core.components.Managers;
 import com.wynntils.features.LootrunFeature;
 import com.wynntils.services.lootrunpaths.type.BlockValidness;
@@ -22,6 +24,7 @@ import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
 import net.minecraft.client.Camera;
 import net.minecraft.client.gui.Font;
 import net.minecraft.client.multiplayer.ClientLevel;
@@ -42,15 +45,24 @@ import org.joml.Vector3f;
 public final class LootrunRenderer {
     private static final MultiBufferSource.BufferSource BUFFER_SOURCE =
             MultiBufferSource.immediate(new BufferBuilder(256));
+    // Path meshes are built once and then uploaded, so a single builder can be shared by all of them
+    private static final BufferBuilder MESH_BUILDER = new BufferBuilder(256);
 
-    public static void renderLootrun(PoseStack poseStack, LootrunPathInstance lootrun, int color) {
+    public static void renderLootrun(
+            PoseStack poseStack,
+            Matrix4f projection,
+            LootrunPathInstance lootrun,
+            int color,
+            LootrunRenderCache renderCache) {
         if (lootrun == null) {
+            renderCache.clear();
             return;
         }
 
         ClientLevel level = McUtils.mc().level;
 
         if (level == null) {
+            renderCache.clear();
             return;
         }
 
@@ -65,6 +77,11 @@ public final class LootrunRenderer {
         BlockPos pos = camera.getBlockPosition();
         ChunkPos origin = new ChunkPos(pos);
 
+        LootrunFeature.PathType pathType = Managers.Feature.getFeatureInstance(LootrunFeature.class)
+                .pathType
+                .get();
+        renderCache.beginFrame(points, level, pathType);
+
         for (int i = 0; i <= renderDistance; i++) {
             for (int j = 0; j <= renderDistance; j++) {
                 int x = j + origin.x - (renderDistance / 2);
@@ -77,7 +94,7 @@ public final class LootrunRenderer {
                 long chunkLong = chunk.toLong();
 
                 if (points.containsKey(chunkLong)) {
-                    renderPoints(poseStack, points, chunkLong);
+                    renderPoints(poseStack, projection, renderCache, points, chunk, level, pathType);
                 }
 
                 if (lootrun.chests().containsKey(chunkLong)) {
@@ -93,6 +110,9 @@ public final class LootrunRenderer {
             }
         }
 
+        // Meshes of chunks that are out of range now are released
+        renderCache.endFrame();
+
         poseStack.popPose();
     }
 
@@ -144,175 +164,188 @@ public final class LootrunRenderer {
         BUFFER_SOURCE.endBatch();
     }
 
-    private static void renderPoints(PoseStack poseStack, Long2ObjectMap<List<ColoredPath>> points, long chunkLong) {
-        List<ColoredPath> locations = points.get(chunkLong);
+    private static void renderPoints(
+            PoseStack poseStack,
+            Matrix4f projection,
+            LootrunRenderCache renderCache,
+            Long2ObjectMap<List<ColoredPath>> points,
+            ChunkPos chunk,
+            ClientLevel level,
+            LootrunFeature.PathType pathType) {
+        long chunkLong = chunk.toLong();
+        int loadedNeighbours = getLoadedNeighbours(level, chunk);
+
+        VertexBuffer mesh = renderCache.getMesh(
+                chunkLong, loadedNeighbours, () -> buildChunkMesh(points.get(chunkLong), chunk, level, pathType));
+        if (mesh == null) return;
+
+        RenderType renderType =
+                switch (pathType) {
+                    case TEXTURED -> CustomRenderType.LOOTRUN_QUAD;
+                    case LINE -> CustomRenderType.LOOTRUN_LINE;
+                };
+
+        renderType.setupRenderState();
+        RenderSystem.setShaderColor(1.0f, 1.0f, 1.0f, 1.0f);
 
-        Level level = McUtils.mc().level;
-        if (level == null) return;
+        // The mesh is relative to the chunk origin, and the render state might have changed the model view matrix
+        Matrix4f modelView = new Matrix4f(RenderSystem.getModelViewMatrix())
+                .mul(poseStack.last().pose())
+                .translate(chunk.getMinBlockX(), 0, chunk.getMinBlockZ());
 
-        switch (Managers.Feature.getFeatureInstance(LootrunFeature.class)
-                .pathType
-                .get()) {
-            case TEXTURED -> renderTexturedLootrunPoints(poseStack, locations, level, CustomRenderType.LOOTRUN_QUAD);
-            case LINE -> renderNonTexturedLootrunPoints(poseStack, locations, level, CustomRenderType.LOOTRUN_LINE);
-        }
+        mesh.bind();
+        mesh.drawWithShader(modelView, projection, RenderSystem.getShader());
+        VertexBuffer.unbind();
+
+        renderType.clearRenderState();
     }
 
-    private static void renderNonTexturedLootrunPoints(
-            PoseStack poseStack, List<ColoredPath> locations, Level level, RenderType renderType) {
-        for (ColoredPath locationsInRoute : locations) {
-            VertexConsumer consumer = BUFFER_SOURCE.getBuffer(renderType);
-            Matrix4f lastMatrix = poseStack.last().pose();
-            boolean sourceBatchEnded = false;
+    // Which points can be drawn depends on the blocks below them, which might be in a neighbouring chunk
+    private static int getLoadedNeighbours(ClientLevel level, ChunkPos chunk) {
+        int loadedNeighbours = 0;
+
+        for (int x = -1; x <= 1; x++) {
+            for (int z = -1; z <= 1; z++) {
+                loadedNeighbours <<= 1;
+                if (level.hasChunk(chunk.x + x, chunk.z + z)) {
+                    loadedNeighbours |= 1;
+                }
+            }
+        }
 
-            ColoredPath toRender = new ColoredPath(new ArrayList<>());
+        return loadedNeighbours;
+    }
 
-            boolean pauseDraw = false;
-            BlockPos lastBlockPos = null;
+    private static BufferBuilder.RenderedBuffer buildChunkMesh(
+            List<ColoredPath> locations, ChunkPos chunk, Level level, LootrunFeature.PathType pathType) {
+        if (locations == null) return null;
 
-            for (ColoredPosition point : locationsInRoute.points()) {
-                BlockPos blockPos = PosUtils.newBlockPos(point.position());
+        Vector3f origin = new Vector3f(chunk.getMinBlockX(), 0, chunk.getMinBlockZ());
 
-                if (blockPos.equals(lastBlockPos)) { // Do not recalculate block validness
-                    if (!toRender.points().isEmpty()) {
-                        toRender.points().add(point);
-                    }
-                } else {
-                    BlockValidness blockValidness = BlockValidness.checkBlockValidness(level, point);
-
-                    if (blockValidness == BlockValidness.VALID) {
-                        pauseDraw = false;
-                        if (sourceBatchEnded) {
-                            consumer = BUFFER_SOURCE.getBuffer(renderType);
-                            sourceBatchEnded = false;
-                        }
-                        renderQueuedPoints(consumer, lastMatrix, toRender);
-                        toRender.points().clear();
-                    } else if (blockValidness == BlockValidness.HAS_BARRIER) {
-                        pauseDraw = true;
-                        toRender.points().clear();
-                    } else {
-                        pauseDraw = false;
-                        toRender.points().add(point);
-                        continue;
-                    }
-                }
+        return switch (pathType) {
+            case TEXTURED -> buildTexturedMesh(locations, level, origin);
+            case LINE -> buildLineMesh(locations, level, origin);
+        };
+    }
+
+    private static BufferBuilder.RenderedBuffer buildLineMesh(
+            List<ColoredPath> locations, Level level, Vector3f origin) {
+        List<List<ColoredPosition>> runs = new ArrayList<>();
+        for (ColoredPath locationsInRoute : locations) {
+            runs.addAll(getDrawnRuns(locationsInRoute.points(), point -> point, level));
+        }
 
-                lastBlockPos = blockPos;
+        if (runs.stream().allMatch(run -> run.size() < 2)) return null;
 
-                if (!pauseDraw) {
-                    renderPoint(consumer, lastMatrix, point);
-                } else if (!sourceBatchEnded) {
-                    BUFFER_SOURCE.endBatch();
-                    sourceBatchEnded = true;
-                }
-            }
-            if (!sourceBatchEnded) {
-                renderQueuedPoints(consumer, lastMatrix, toRender);
-                BUFFER_SOURCE.endBatch();
+        // The runs are line strips, which can't be put into a single buffer, so they are split into separate lines
+        MESH_BUILDER.begin(VertexFormat.Mode.LINES, CustomRenderType.LOOTRUN_LINE.format());
+        for (List<ColoredPosition> run : runs) {
+            for (int i = 1; i < run.size(); i++) {
+                renderPoint(MESH_BUILDER, origin, run.get(i - 1));
+                renderPoint(MESH_BUILDER, origin, run.get(i));
             }
         }
+        return MESH_BUILDER.end();
     }
 
-    private static void renderTexturedLootrunPoints(
-            PoseStack poseStack, List<ColoredPath> locations, Level level, RenderType renderType) {
-        Camera camera = McUtils.mc().gameRenderer.getMainCamera();
-        poseStack.pushPose();
-        poseStack.translate(camera.getPosition().x, camera.getPosition().y, camera.getPosition().z);
-        RenderSystem.setShaderColor(1.0f, 1.0f, 1.0f, 1.0f);
-
+    private static BufferBuilder.RenderedBuffer buildTexturedMesh(
+            List<ColoredPath> locations, Level level, Vector3f origin) {
+        List<List<Pair<ColoredPosition, ColoredPosition>>> runs = new ArrayList<>();
         for (ColoredPath locationsInRoute : locations) {
-            VertexConsumer consumer = BUFFER_SOURCE.getBuffer(renderType);
-            List<Pair<ColoredPosition, ColoredPosition>> toRender = new ArrayList<>();
-            boolean sourceBatchEnded = false;
-            BlockPos lastBlockPos = null;
+            List<ColoredPosition> points = locationsInRoute.points();
+
+            List<Pair<ColoredPosition, ColoredPosition>> pointPairs = new ArrayList<>();
+            for (int i = 0; i < points.size() - 1; i += 10) {
+                pointPairs.add(new Pair<>(points.get(i), points.get(Math.min(points.size() - 1, i + 1))));
+            }
 
-            boolean pauseDraw = false;
+            runs.addAll(getDrawnRuns(pointPairs, Pair::a, level));
+        }
 
-            for (int i = 0; i < locationsInRoute.points().size() - 1; i += 10) {
-                ColoredPosition point = locationsInRoute.points().get(i);
-                BlockPos blockPos = PosUtils.newBlockPos(point.position());
+        if (runs.stream().allMatch(List::isEmpty)) return null;
 
-                ColoredPosition end = locationsInRoute
-                        .points()
-                        .get(Math.min(locationsInRoute.points().size() - 1, i + 1));
-                Pair<ColoredPosition, ColoredPosition> pointPair = new Pair<>(point, end);
+        MESH_BUILDER.begin(VertexFormat.Mode.QUADS, CustomRenderType.LOOTRUN_QUAD.format());
+        for (List<Pair<ColoredPosition, ColoredPosition>> run : runs) {
+            for (Pair<ColoredPosition, ColoredPosition> pointPair : run) {
+                renderTexturedPoint(pointPair.a(), pointPair.b(), origin, MESH_BUILDER);
+            }
+        }
+        return MESH_BUILDER.end();
+    }
 
-                if (blockPos.equals(lastBlockPos)) { // Do not recalculate block validness
-                    if (!toRender.isEmpty()) {
-                        toRender.add(pointPair);
+    // Splits the path into the runs that are drawn. Points above barriers are not drawn, and points without a block
+    // below them are only drawn if a point with a block below them follows.
+    private static <T> List<List<T>> getDrawnRuns(
+            List<T> elements, Function<T, ColoredPosition> positionGetter, Level level) {
+        List<List<T>> runs = new ArrayList<>();
+        List<T> currentRun = new ArrayList<>();
+        boolean runEnded = false;
+
+        List<T> queued = new ArrayList<>();
+        boolean pauseDraw = false;
+        BlockPos lastBlockPos = null;
+
+        for (T element : elements) {
+            ColoredPosition point = positionGetter.apply(element);
+            BlockPos blockPos = PosUtils.newBlockPos(point.position());
+
+            if (blockPos.equals(lastBlockPos)) { // Do not recalculate block validness
+                if (!queued.isEmpty()) {
+                    queued.add(element);
+                }
+            } else {
+                BlockValidness blockValidness = BlockValidness.checkBlockValidness(level, point);
+
+                if (blockValidness == BlockValidness.VALID) {
+                    pauseDraw = false;
+                    if (runEnded) {
+                        currentRun = new ArrayList<>();
+                        runEnded = false;
                     }
+                    currentRun.addAll(queued);
+                    queued.clear();
+                } else if (blockValidness == BlockValidness.HAS_BARRIER) {
+                    pauseDraw = true;
+                    queued.clear();
                 } else {
-                    BlockValidness blockValidness = BlockValidness.checkBlockValidness(level, point);
-
-                    if (blockValidness == BlockValidness.VALID) {
-                        pauseDraw = false;
-                        if (sourceBatchEnded) {
-                            consumer = BUFFER_SOURCE.getBuffer(renderType);
-                            sourceBatchEnded = false;
-                        }
-                        renderTexturedQueuedPoints(toRender, poseStack, consumer);
-                        toRender.clear();
-                    } else if (blockValidness == BlockValidness.HAS_BARRIER) {
-                        pauseDraw = true;
-                        toRender.clear();
-                    } else {
-                        pauseDraw = false;
-                        toRender.add(pointPair);
-                        continue;
-                    }
+                    pauseDraw = false;
+                    queued.add(element);
+                    continue;
                 }
+            }
 
-                lastBlockPos = blockPos;
+            lastBlockPos = blockPos;
 
-                if (!pauseDraw) {
-                    renderTexturedPoint(pointPair, poseStack, consumer);
-                } else if (!sourceBatchEnded) {
-                    BUFFER_SOURCE.endBatch();
-                    sourceBatchEnded = true;
+            if (!pauseDraw) {
+                if (runEnded) {
+                    currentRun = new ArrayList<>();
+                    runEnded = false;
                 }
-            }
-            if (!sourceBatchEnded) {
-                renderTexturedQueuedPoints(toRender, poseStack, consumer);
-                BUFFER_SOURCE.endBatch();
+                currentRun.add(element);
+            } else if (!runEnded) {
+                runs.add(currentRun);
+                runEnded = true;
             }
         }
-        poseStack.popPose();
-    }
-
-    private static void renderQueuedPoints(VertexConsumer consumer, Matrix4f lastMatrix, ColoredPath toRender) {
-        for (ColoredPosition position : toRender.points()) {
-            renderPoint(consumer, lastMatrix, position);
+        if (!runEnded) {
+            currentRun.addAll(queued);
+            runs.add(currentRun);
         }
+
+        return runs;
     }
 
-    private static void renderPoint(VertexConsumer consumer, Matrix4f lastMatrix, ColoredPosition coloredPosition) {
+    private static void renderPoint(VertexConsumer consumer, Vector3f origin, ColoredPosition coloredPosition) {
         Position position = coloredPosition.position();
         int pathColor = coloredPosition.color();
-        consumer.vertex(lastMatrix, (float) position.x(), (float) position.y(), (float) position.z())
+        consumer.vertex(position.x() - origin.x, position.y() - origin.y, position.z() - origin.z)
                 .color(pathColor)
                 .normal(0, 0, 1)
                 .endVertex();
     }
 
-    private static void renderTexturedQueuedPoints(
-            List<Pair<ColoredPosition, ColoredPosition>> pointPairList,
-            PoseStack poseStack,
-            VertexConsumer vertexConsumer) {
-        for (Pair<ColoredPosition, ColoredPosition> pointPair : pointPairList) {
-            renderTexturedPoint(pointPair.a(), pointPair.b(), poseStack, vertexConsumer);
-        }
-    }
-
     private static void renderTexturedPoint(
-            Pair<ColoredPosition, ColoredPosition> pointPair, PoseStack poseStack, VertexConsumer vertexConsumer) {
-        renderTexturedPoint(pointPair.a(), pointPair.b(), poseStack, vertexConsumer);
-    }
-
-    private static void renderTexturedPoint(
-            ColoredPosition start, ColoredPosition end, PoseStack poseStack, VertexConsumer vertexConsumer) {
-        Vector3f camPos =
-                McUtils.mc().gameRenderer.getMainCamera().getPosition().toVector3f();
+            ColoredPosition start, ColoredPosition end, Vector3f origin, VertexConsumer vertexConsumer) {
         Vector3f startVec = start.position().toVector3f();
         Vector3f endVec = end.position().toVector3f();
         int color = start.color();
@@ -341,31 +374,15 @@ public final class LootrunRenderer {
         pos3.rotate(yRot).rotate(xRot);
         pos4.rotate(yRot).rotate(xRot);
 
-        // transform position back to world space and then to position camera delta
-        pos1 = pos1.add(startVec).sub(camPos);
-        pos2 = pos2.add(startVec).sub(camPos);
-        pos3 = pos3.add(startVec).sub(camPos);
-        pos4 = pos4.add(startVec).sub(camPos);
+        // transform position back to world space and then to be relative to the chunk origin
+        pos1 = pos1.add(startVec).sub(origin);
+        pos2 = pos2.add(startVec).sub(origin);
+        pos3 = pos3.add(startVec).sub(origin);
+        pos4 = pos4.add(startVec).sub(origin);
 
-        vertexConsumer
-                .vertex(poseStack.last().pose(), pos1.x, pos1.y, pos1.z)
-                .color(color)
-                .uv(0, 1)
-                .endVertex();
-        vertexConsumer
-                .vertex(poseStack.last().pose(), pos2.x, pos2.y, pos2.z)
-                .color(color)
-                .uv(0, 0)
-                .endVertex();
-        vertexConsumer
-                .vertex(poseStack.last().pose(), pos3.x, pos3.y, pos3.z)
-                .color(color)
-                .uv(1, 0)
-                .endVertex();
-        vertexConsumer
-                .vertex(poseStack.last().pose(), pos4.x, pos4.y, pos4.z)
-                .color(color)
-                .uv(1, 1)
-                .endVertex();
+        vertexConsumer.vertex(pos1.x, pos1.y, pos1.z).color(color).uv(0, 1).endVertex();
+        vertexConsumer.vertex(pos2.x, pos2.y, pos2.z).color(color).uv(0, 0).endVertex();
+        vertexConsumer.vertex(pos3.x, pos3.y, pos3.z).color(color).uv(1, 0).endVertex();
+        vertexConsumer.vertex(pos4.x, pos4.y, pos4.z).color(color).uv(1, 1).endVertex();
     }
 }
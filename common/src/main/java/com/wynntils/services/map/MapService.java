@@ -11,15 +11,25 @@ import com.wynntils.core.components.Managers;
 import com.wynntils.core.components.Service;
 import com.wynntils.core.net.Download;
 import com.wynntils.core.net.UrlId;
+import com.wynntils.utils.FileUtils;
 import com.wynntils.utils.type.BoundingBox;
+import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.net.URI;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import net.minecraft.resources.ResourceLocation;
 
 public final class MapService extends Service {
+    private static final File TILE_CACHE_DIR = Managers.Net.getCacheFile("maptiles");
+
     private final List<MapTexture> maps = new CopyOnWriteArrayList<>();
+    private final MapTileCache tileCache = new MapTileCache();
 
     public MapService() {
         super(List.of());
@@ -40,14 +50,26 @@ public final class MapService extends Service {
         return maps.stream().filter(map -> box.intersects(map.getBox())).toList();
     }
 
+    /**
+     * Returns the texture of a tile of the map, or null if there is nothing to draw for it yet.
+     * If {@code load} is true, a tile that is not loaded yet is loaded in the background, so it can be drawn
+     * in a later frame.
+     */
+    public ResourceLocation getMapTile(MapTexture map, int level, int tileX, int tileZ, boolean load) {
+        return tileCache.getTile(map, level, tileX, tileZ, load);
+    }
+
     private void loadMaps() {
         maps.clear();
+        tileCache.clear();
 
         Download dl = Managers.Net.download(UrlId.DATA_STATIC_MAPS);
         dl.handleReader(reader -> {
             Type type = new TypeToken<List<MapPartProfile>>() {}.getType();
 
             List<MapPartProfile> mapPartList = WynntilsMod.GSON.fromJson(reader, type);
+            removeStaleTiles(mapPartList);
+
             for (MapPartProfile mapPart : mapPartList) {
                 String fileName = mapPart.md5 + ".png";
 
@@ -57,14 +79,20 @@ public final class MapService extends Service {
     }
 
     private void loadMapPart(MapPartProfile mapPart, String fileName) {
+        File tileDir = new File(TILE_CACHE_DIR, mapPart.md5);
+
+        // The tiles are named after the md5 of the map part, so if they exist, they are up to date
+        Optional<MapTileGenerator.TileInfo> tileInfo = MapTileGenerator.readTileInfo(tileDir);
+        if (tileInfo.isPresent()) {
+            addMapPart(mapPart, tileDir, tileInfo.get());
+            return;
+        }
+
         Download dl = Managers.Net.download(URI.create(mapPart.url), "maps/" + fileName, mapPart.md5);
         dl.handleInputStream(
                 inputStream -> {
-                    try {
-                        NativeImage nativeImage = NativeImage.read(inputStream);
-                        MapTexture mapPartImage =
-                                new MapTexture(fileName, nativeImage, mapPart.x1, mapPart.z1, mapPart.x2, mapPart.z2);
-                        maps.add(mapPartImage);
+                    try (NativeImage nativeImage = NativeImage.read(inputStream)) {
+                        addMapPart(mapPart, tileDir, MapTileGenerator.generate(nativeImage, tileDir));
                     } catch (IOException e) {
                         WynntilsMod.warn("IOException occurred while loading map image of " + mapPart.name, e);
                     }
@@ -72,6 +100,20 @@ public final class MapService extends Service {
                 onError -> WynntilsMod.warn("Error occurred while download map image of " + mapPart.name, onError));
     }
 
+    private void addMapPart(MapPartProfile mapPart, File tileDir, MapTileGenerator.TileInfo tileInfo) {
+        maps.add(new MapTexture(mapPart.md5, tileDir, tileInfo, mapPart.x1, mapPart.z1, mapPart.x2, mapPart.z2));
+    }
+
+    private void removeStaleTiles(List<MapPartProfile> mapPartList) {
+        Set<String> md5s = mapPartList.stream().map(mapPart -> mapPart.md5).collect(Collectors.toSet());
+
+        for (File tileDir : Objects.requireNonNullElse(TILE_CACHE_DIR.listFiles(), new File[0])) {
+            if (!md5s.contains(tileDir.getName())) {
+                FileUtils.deleteFolder(tileDir);
+            }
+        }
+    }
+
     private static final class MapPartProfile {
         final String name;
         final String url;
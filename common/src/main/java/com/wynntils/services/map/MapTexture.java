@@ -4,17 +4,23 @@
  */
 package com.wynntils.services.map;
 
-import com.mojang.blaze3d.platform.NativeImage;
-import com.wynntils.utils.mc.McUtils;
+import com.wynntils.utils.MathUtils;
 import com.wynntils.utils.type.BoundingBox;
-import net.minecraft.client.renderer.texture.DynamicTexture;
-import net.minecraft.resources.ResourceLocation;
-
+import java.io.File;
+
+/**
+ * A part of the map, which is split into square tiles of {@link #TILE_SIZE} pixels.
+ * <p>
+ * Every mip level halves the resolution of the level below it, so a tile of level {@code n} covers
+ * {@code TILE_SIZE << n} pixels of the full resolution texture. The tiles are stored on disk, and are only uploaded
+ * when they are rendered, see {@link MapService#getMapTile(MapTexture, int, int, int, boolean)}.
+ */
 public class MapTexture {
-    private final NativeImage texture;
-    private final ResourceLocation mapResource;
+    public static final int TILE_SIZE = 256;
 
-    private boolean registered = false;
+    private final String name;
+    private final File tileDir;
+    private final int levels;
 
     private final int x1;
     private final int z1;
@@ -24,28 +30,48 @@ public class MapTexture {
     private final int textureWidth;
     private final int textureHeight;
 
-    public MapTexture(String name, NativeImage texture, int x1, int z1, int x2, int z2) {
-        this.texture = texture;
+    MapTexture(String name, File tileDir, MapTileGenerator.TileInfo tileInfo, int x1, int z1, int x2, int z2) {
+        this.name = name;
+        this.tileDir = tileDir;
+        this.levels = tileInfo.levels();
         this.x1 = x1;
         this.z1 = z1;
         this.x2 = x2;
         this.z2 = z2;
-        this.textureWidth = texture.getWidth();
-        this.textureHeight = texture.getHeight();
-
-        this.mapResource = new ResourceLocation("wynntils", "/maps/" + name);
+        this.textureWidth = tileInfo.width();
+        this.textureHeight = tileInfo.height();
 
         assert (x2 - x1 + 1 == textureWidth);
         assert (z2 - z1 + 1 == textureHeight);
     }
 
-    public ResourceLocation resource() {
-        if (!registered) {
-            registered = true;
-            McUtils.mc().getTextureManager().register(mapResource, new DynamicTexture(texture));
-        }
+    /**
+     * Returns the mip level to render with, when one screen pixel covers {@code texelsPerPixel} texture pixels.
+     */
+    public int getMipLevel(float texelsPerPixel) {
+        if (texelsPerPixel <= 1f) return 0;
+
+        int level = 31 - Integer.numberOfLeadingZeros((int) texelsPerPixel);
+        return MathUtils.clamp(level, 0, levels - 1);
+    }
+
+    public int getLevels() {
+        return levels;
+    }
+
+    /**
+     * Returns the number of texture pixels one tile of the given level covers, in both directions.
+     */
+    public int getTileSpan(int level) {
+        return TILE_SIZE << level;
+    }
+
+    String getName() {
+        return name;
+    }
 
-        return mapResource;
+    File getTileFile(int level, int tileX, int tileZ) {
+        return MapTileGenerator.getTileFile(tileDir, level, tileX, tileZ);
     }
 
     public float getTextureXPosition(double posX) {
@@ -0,0 +1,207 @@
+/*
+ * Copyright © Wynntils 2023.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.services.map;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.mojang.blaze3d.platform.NativeImage;
+import com.mojang.blaze3d.platform.TextureUtil;
+import com.wynntils.core.WynntilsMod;
+import com.wynntils.core.components.Managers;
+import com.wynntils.features.map.MainMapFeature;
+import com.wynntils.utils.MathUtils;
+import com.wynntils.utils.mc.McUtils;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import net.minecraft.client.renderer.texture.AbstractTexture;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.ResourceManager;
+
+/**
+ * The map tiles that are currently uploaded to the GPU.
+ * <p>
+ * Tiles are read from disk on a background thread when they are first requested, and uploaded on the render thread.
+ * When the uploaded tiles use more memory than the configured budget, the least recently rendered tiles are released,
+ * except for tiles that were rendered very recently, as those are still on the screen.
+ */
+final class MapTileCache {
+    private static final long TILE_BYTES = (long) MapTexture.TILE_SIZE * MapTexture.TILE_SIZE * 4;
+    private static final long RECENTLY_USED_MILLIS = 1000;
+    private static final int MAX_UPLOADS_PER_CALL = 8;
+    private static final int MIN_BUDGET_MEGABYTES = 32;
+    private static final int MAX_BUDGET_MEGABYTES = 2048;
+
+    private final ExecutorService loadExecutor = Executors.newFixedThreadPool(
+            2,
+            new ThreadFactoryBuilder()
+                    .setNameFormat("wynntils-map-tiles-%d")
+                    .setDaemon(true)
+                    .build());
+
+    // Iterates from the least to the most recently used tile
+    private final Map<TileKey, ResidentTile> residentTiles = new LinkedHashMap<>(64, 0.75f, true);
+    private final Set<TileKey> loadingTiles = ConcurrentHashMap.newKeySet();
+    private final Queue<LoadedTile> loadedTiles = new ConcurrentLinkedQueue<>();
+
+    private long residentBytes = 0;
+    private volatile boolean clearRequested = false;
+
+    /**
+     * Returns the texture of the tile, or null if the tile is not uploaded yet, or has nothing to draw.
+     * If {@code load} is true, a tile that is not uploaded is loaded in the background.
+     * <p>
+     * This has to be called on the render thread.
+     */
+    ResourceLocation getTile(MapTexture map, int level, int tileX, int tileZ, boolean load) {
+        if (clearRequested) {
+            releaseAll();
+        }
+
+        uploadLoadedTiles();
+
+        TileKey key = new TileKey(map, level, tileX, tileZ);
+        ResidentTile tile = residentTiles.get(key);
+        if (tile != null) {
+            tile.lastUsed = System.currentTimeMillis();
+            return tile.location;
+        }
+
+        if (load && loadingTiles.add(key)) {
+            loadExecutor.submit(() -> loadTile(key));
+        }
+
+        return null;
+    }
+
+    /**
+     * Releases all tiles. This can be called from any thread, the textures are released on the render thread.
+     */
+    void clear() {
+        clearRequested = true;
+    }
+
+    private void releaseAll() {
+        clearRequested = false;
+
+        residentTiles.values().forEach(ResidentTile::release);
+        residentTiles.clear();
+
+        // Tiles that are still loading belong to the old maps, they are discarded when they are uploaded
+        loadingTiles.clear();
+    }
+
+    private void loadTile(TileKey key) {
+        File file = key.map().getTileFile(key.level(), key.tileX(), key.tileZ());
+
+        // Transparent tiles are not stored, they are remembered as empty, so they are not requested again
+        if (!file.exists()) {
+            loadedTiles.add(new LoadedTile(key, null));
+            return;
+        }
+
+        try (InputStream inputStream = new FileInputStream(file)) {
+            loadedTiles.add(new LoadedTile(key, NativeImage.read(inputStream)));
+        } catch (IOException e) {
+            WynntilsMod.warn("Could not read map tile " + file, e);
+            loadingTiles.remove(key);
+        }
+    }
+
+    private void uploadLoadedTiles() {
+        for (int i = 0; i < MAX_UPLOADS_PER_CALL; i++) {
+            LoadedTile loadedTile = loadedTiles.poll();
+            if (loadedTile == null) break;
+
+            TileKey key = loadedTile.key();
+            if (!loadingTiles.remove(key)) {
+                // The cache was cleared while the tile was loading
+                if (loadedTile.image() != null) {
+                    loadedTile.image().close();
+                }
+                continue;
+            }
+
+            ResourceLocation location = null;
+            if (loadedTile.image() != null) {
+                location = new ResourceLocation(
+                        "wynntils",
+                        "maps/" + key.map().getName() + "/" + key.level() + "_" + key.tileX() + "_" + key.tileZ());
+                McUtils.mc().getTextureManager().register(location, new MapTileTexture(loadedTile.image()));
+                residentBytes += TILE_BYTES;
+            }
+
+            residentTiles.put(key, new ResidentTile(location));
+        }
+
+        evictTiles();
+    }
+
+    private void evictTiles() {
+        // The config is not limited, so keep the budget in a sensible range
+        int budgetMegabytes = MathUtils.clamp(
+                Managers.Feature.getFeatureInstance(MainMapFeature.class)
+                        .mapTextureMemory
+                        .get(),
+                MIN_BUDGET_MEGABYTES,
+                MAX_BUDGET_MEGABYTES);
+        long budget = budgetMegabytes * 1024L * 1024L;
+        long now = System.currentTimeMillis();
+
+        Iterator<ResidentTile> iterator = residentTiles.values().iterator();
+        while (residentBytes > budget && iterator.hasNext()) {
+            ResidentTile tile = iterator.next();
+
+            // Every following tile was used even more recently
+            if (now - tile.lastUsed < RECENTLY_USED_MILLIS) break;
+
+            tile.release();
+            iterator.remove();
+        }
+    }
+
+    private record TileKey(MapTexture map, int level, int tileX, int tileZ) {}
+
+    private record LoadedTile(TileKey key, NativeImage image) {}
+
+    private final class ResidentTile {
+        private final ResourceLocation location;
+        private long lastUsed = System.currentTimeMillis();
+
+        private ResidentTile(ResourceLocation location) {
+            this.location = location;
+        }
+
+        private void release() {
+            if (location == null) return;
+
+            McUtils.mc().getTextureManager().release(location);
+            residentBytes -= TILE_BYTES;
+        }
+    }
+
+    /**
+     * A texture that is uploaded once, without keeping a copy of the image in memory.
+     */
+    private static final class MapTileTexture extends AbstractTexture {
+        private MapTileTexture(NativeImage image) {
+            TextureUtil.prepareImage(getId(), image.getWidth(), image.getHeight());
+            // Without mipmaps, and closes the image after the upload
+            image.upload(0, 0, 0, 0, 0, image.getWidth(), image.getHeight(), false, true);
+        }
+
+        @Override
+        public void load(ResourceManager resourceManager) {}
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright © Wynntils 2023.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.services.map;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.mojang.blaze3d.platform.NativeImage;
+import com.wynntils.core.WynntilsMod;
+import com.wynntils.utils.FileUtils;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Splits a map part into the tiles of all its mip levels, and stores them as PNG files in a tile directory.
+ * <p>
+ * Tiles that are completely transparent are not stored. The tile info file is written last, so a directory without
+ * one was not generated completely, and is generated again.
+ */
+final class MapTileGenerator {
+    private static final String TILE_INFO_FILE = "tiles.json";
+
+    private MapTileGenerator() {}
+
+    static Optional<TileInfo> readTileInfo(File tileDir) {
+        File infoFile = new File(tileDir, TILE_INFO_FILE);
+        if (!infoFile.isFile()) return Optional.empty();
+
+        try (Reader reader = new FileReader(infoFile, StandardCharsets.UTF_8)) {
+            JsonObject json = JsonParser.parseReader(reader).getAsJsonObject();
+            return Optional.of(new TileInfo(
+                    json.get("width").getAsInt(),
+                    json.get("height").getAsInt(),
+                    json.get("levels").getAsInt()));
+        } catch (IOException | JsonParseException | IllegalStateException | NullPointerException e) {
+            WynntilsMod.warn("Could not read map tile info of " + tileDir.getName(), e);
+            return Optional.empty();
+        }
+    }
+
+    static TileInfo generate(NativeImage image, File tileDir) throws IOException {
+        // Remove the tiles of an earlier, incomplete run
+        FileUtils.deleteFolder(tileDir);
+        FileUtils.mkdir(tileDir);
+
+        int size = Math.max(image.getWidth(), image.getHeight());
+        int levels = 1;
+        while ((MapTexture.TILE_SIZE << (levels - 1)) < size) {
+            levels++;
+        }
+
+        NativeImage levelImage = image;
+        try {
+            for (int level = 0; level < levels; level++) {
+                if (level > 0) {
+                    NativeImage downsampled = downsample(levelImage);
+                    if (levelImage != image) {
+                        levelImage.close();
+                    }
+                    levelImage = downsampled;
+                }
+
+                writeTiles(levelImage, tileDir, level);
+            }
+        } finally {
+            if (levelImage != image) {
+                levelImage.close();
+            }
+        }
+
+        TileInfo tileInfo = new TileInfo(image.getWidth(), image.getHeight(), levels);
+
+        JsonObject json = new JsonObject();
+        json.addProperty("width", tileInfo.width());
+        json.addProperty("height", tileInfo.height());
+        json.addProperty("levels", tileInfo.levels());
+        try (Writer writer = new FileWriter(new File(tileDir, TILE_INFO_FILE), StandardCharsets.UTF_8)) {
+            WynntilsMod.GSON.toJson(json, writer);
+        }
+
+        return tileInfo;
+    }
+
+    static File getTileFile(File tileDir, int level, int tileX, int tileZ) {
+        return new File(tileDir, level + "_" + tileX + "_" + tileZ + ".png");
+    }
+
+    private static void writeTiles(NativeImage image, File tileDir, int level) throws IOException {
+        int tilesX = (image.getWidth() + MapTexture.TILE_SIZE - 1) / MapTexture.TILE_SIZE;
+        int tilesZ = (image.getHeight() + MapTexture.TILE_SIZE - 1) / MapTexture.TILE_SIZE;
+
+        for (int tileX = 0; tileX < tilesX; tileX++) {
+            for (int tileZ = 0; tileZ < tilesZ; tileZ++) {
+                int startX = tileX * MapTexture.TILE_SIZE;
+                int startZ = tileZ * MapTexture.TILE_SIZE;
+                int width = Math.min(MapTexture.TILE_SIZE, image.getWidth() - startX);
+                int height = Math.min(MapTexture.TILE_SIZE, image.getHeight() - startZ);
+
+                // The parts of edge tiles outside the image stay transparent
+                try (NativeImage tile = new NativeImage(MapTexture.TILE_SIZE, MapTexture.TILE_SIZE, true)) {
+                    boolean empty = true;
+
+                    for (int x = 0; x < width; x++) {
+                        for (int z = 0; z < height; z++) {
+                            int pixel = image.getPixelRGBA(startX + x, startZ + z);
+                            if (getAlpha(pixel) == 0) continue;
+
+                            tile.setPixelRGBA(x, z, pixel);
+                            empty = false;
+                        }
+                    }
+
+                    if (empty) continue;
+
+                    tile.writeToFile(getTileFile(tileDir, level, tileX, tileZ));
+                }
+            }
+        }
+    }
+
+    // Averages every 2x2 block of pixels into one. Transparent pixels are left out of the average, so their colour
+    // does not bleed into the edges of the map.
+    private static NativeImage downsample(NativeImage image) {
+        int width = (image.getWidth() + 1) / 2;
+        int height = (image.getHeight() + 1) / 2;
+        NativeImage result = new NativeImage(width, height, true);
+
+        for (int x = 0; x < width; x++) {
+            for (int z = 0; z < height; z++) {
+                int opaque = 0;
+                int[] sums = new int[4];
+
+                for (int dx = 0; dx < 2; dx++) {
+                    for (int dz = 0; dz < 2; dz++) {
+                        int sourceX = x * 2 + dx;
+                        int sourceZ = z * 2 + dz;
+                        if (sourceX >= image.getWidth() || sourceZ >= image.getHeight()) continue;
+
+                        int pixel = image.getPixelRGBA(sourceX, sourceZ);
+                        if (getAlpha(pixel) == 0) continue;
+
+                        opaque++;
+                        for (int channel = 0; channel < 4; channel++) {
+                            sums[channel] += (pixel >>> (channel * 8)) & 0xFF;
+                        }
+                    }
+                }
+
+                if (opaque == 0) continue;
+
+                int pixel = 0;
+                for (int channel = 0; channel < 4; channel++) {
+                    pixel |= (sums[channel] / opaque) << (channel * 8);
+                }
+                result.setPixelRGBA(x, z, pixel);
+            }
+        }
+
+        return result;
+    }
+
+    // NativeImage pixels are stored as ABGR, so the alpha channel is in the highest byte
+    private static int getAlpha(int pixel) {
+        return pixel >>> 24;
+    }
+
+    record TileInfo(int width, int height, int levels) {}
+}
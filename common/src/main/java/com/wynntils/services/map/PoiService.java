@@ -15,9 +15,11 @@ import com.wynntils.core.net.UrlId;
 import com.wynntils.core.net.event.NetResultProcessedEvent;
 import com.wynntils.core.persisted.Persisted;
 import com.wynntils.core.persisted.storage.Storage;
+import com.wynntils.features.map.MainMapFeature;
 import com.wynntils.services.map.pois.CombatPoi;
 import com.wynntils.services.map.pois.CustomPoi;
 import com.wynntils.services.map.pois.LabelPoi;
+import com.wynntils.services.map.pois.Poi;
 import com.wynntils.services.map.pois.ServicePoi;
 import com.wynntils.services.map.type.CombatKind;
 import com.wynntils.services.map.type.CustomPoiProvider;
@@ -25,6 +27,8 @@ import com.wynntils.services.map.type.ServiceKind;
 import com.wynntils.utils.mc.type.Location;
 import com.wynntils.utils.mc.type.PoiLocation;
 import com.wynntils.utils.render.Texture;
+import com.wynntils.utils.type.BoundingBox;
+import com.wynntils.utils.type.SpatialGrid;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -54,12 +58,21 @@ public class PoiService extends Service {
             Texture.MINING,
             Texture.WOODCUTTING);
 
+    private static final int POI_GRID_CELL_SIZE = 128;
+
     private final Set<LabelPoi> labelPois = new HashSet<>();
     private final Set<ServicePoi> servicePois = new HashSet<>();
     private final Set<CombatPoi> combatPois = new HashSet<>();
     private final Set<CombatPoi> cavePois = new HashSet<>();
     private final Map<CustomPoiProvider, List<CustomPoi>> providedCustomPois = new ConcurrentHashMap<>();
 
+    // All of the pois above and the user's custom pois by location. Rebuilt on the render thread when they change.
+    private SpatialGrid<Poi> poiGrid = null;
+    private volatile boolean poiGridDirty = true;
+    private List<CustomPoi> indexedCustomPois = null;
+    private List<CustomPoiProvider> indexedPoiProviders = List.of();
+    private int maxPoiSize = 0;
+
     @Persisted
     private final Storage<List<CustomPoiProvider>> customPoiProviders = new Storage<>(new ArrayList<>());
 
@@ -102,6 +115,7 @@ public class PoiService extends Service {
                     .map(profile ->
                             new CombatPoi(PoiLocation.fromLocation(profile.location), profile.name, CombatKind.CAVES))
                     .collect(Collectors.toUnmodifiableSet()));
+            poiGridDirty = true;
         });
     }
 
@@ -116,6 +130,7 @@ public class PoiService extends Service {
                 }
 
                 providedCustomPois.put(poiProvider, ImmutableList.copyOf(pois));
+                poiGridDirty = true;
             });
         }
     }
@@ -143,6 +158,70 @@ public class PoiService extends Service {
         }
     }
 
+    /**
+     * Returns the label, service, combat and custom pois that could be visible in the given area, when rendered
+     * with the given poi scale. Only pois near the area are checked, the caller still has to check the actual
+     * bounds of the returned pois.
+     * <p>
+     * The pois are returned in drawing order: service pois, combat pois, label pois and then custom pois.
+     */
+    public List<Poi> getStaticPoisInArea(BoundingBox area, float poiScale, boolean includeLabels) {
+        updatePoiGrid();
+
+        // Pois are indexed by their location, so include pois whose center is just outside the area
+        float margin = maxPoiSize * poiScale / 2f + 1;
+        List<Poi> pois = poiGrid.query(
+                area.getX1() - margin, area.getZ1() - margin, area.getX2() + margin, area.getZ2() + margin);
+
+        if (!includeLabels) {
+            pois.removeIf(poi -> poi instanceof LabelPoi);
+        }
+
+        return pois;
+    }
+
+    public void onCustomPoisChanged() {
+        poiGridDirty = true;
+    }
+
+    private void updatePoiGrid() {
+        List<CustomPoi> customPois = Managers.Feature.getFeatureInstance(MainMapFeature.class).customPois.get();
+        List<CustomPoiProvider> enabledProviders = customPoiProviders.get().stream()
+                .filter(CustomPoiProvider::isEnabled)
+                .toList();
+
+        // Reloading the config replaces the custom poi list, and providers can be toggled at any time
+        if (poiGrid != null
+                && !poiGridDirty
+                && customPois == indexedCustomPois
+                && enabledProviders.equals(indexedPoiProviders)) {
+            return;
+        }
+
+        poiGridDirty = false;
+        indexedCustomPois = customPois;
+        indexedPoiProviders = enabledProviders;
+
+        // Keep the order pois were rendered in before, as it decides which poi is drawn on top
+        List<Poi> pois = new ArrayList<>();
+        pois.addAll(servicePois);
+        pois.addAll(combatPois);
+        pois.addAll(cavePois);
+        pois.addAll(labelPois);
+        pois.addAll(customPois);
+        pois.addAll(getProvidedCustomPois());
+
+        poiGrid = new SpatialGrid<>(POI_GRID_CELL_SIZE);
+        maxPoiSize = 0;
+        for (Poi poi : pois) {
+            PoiLocation location = poi.getLocation();
+            poiGrid.add(poi, location.getX(), location.getZ());
+
+            // The size of a poi grows linearly with the poi scale
+            maxPoiSize = Math.max(maxPoiSize, Math.max(poi.getWidth(1f, 1f), poi.getHeight(1f, 1f)));
+        }
+    }
+
     public Stream<LabelPoi> getLabelPois() {
         return labelPois.stream();
     }
@@ -180,6 +259,7 @@ public class PoiService extends Service {
             for (Label label : places.labels) {
                 labelPois.add(new LabelPoi(label));
             }
+            poiGridDirty = true;
         });
     }
 
@@ -199,6 +279,7 @@ public class PoiService extends Service {
                     WynntilsMod.warn("Unknown service type in services.json: " + service.type);
                 }
             }
+            poiGridDirty = true;
         });
     }
 
@@ -219,6 +300,7 @@ public class PoiService extends Service {
                     WynntilsMod.warn("Unknown combat type in combat.json: " + combatList.type);
                 }
             }
+            poiGridDirty = true;
         });
     }
 
@@ -231,6 +313,7 @@ public class PoiService extends Service {
 
         customPoiProviders.get().remove(provider.get());
         providedCustomPois.remove(provider.get());
+        poiGridDirty = true;
 
         return true;
     }
@@ -1,5 +1,5 @@
 /*
- * Copyright © Wynntils 2022.
+ * Copyright © Wynntils 2022-2023.
  * This file is released under AGPLv3. See LICENSE for full license details.
  */
 package com.wynntils.utils.colors;
@@ -15,6 +15,7 @@ import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.zip.CRC32;
@@ -197,6 +198,11 @@ public class CustomColor {
         return (this.r == color.r && this.g == color.g && this.b == color.b && this.a == color.a);
     }
 
+    @Override
+    public int hashCode() {
+        return Objects.hash(r, g, b, a);
+    }
+
     @Override
     public String toString() {
         return toHexString();
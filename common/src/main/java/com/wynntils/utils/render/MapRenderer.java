@@ -12,6 +12,7 @@ import com.mojang.blaze3d.vertex.PoseStack;
 import com.mojang.blaze3d.vertex.Tesselator;
 import com.mojang.blaze3d.vertex.VertexConsumer;
 import com.mojang.blaze3d.vertex.VertexFormat;
+import com.wynntils.core.components.Services;
 import com.wynntils.services.lootrunpaths.LootrunPathInstance;
 import com.wynntils.services.map.MapTexture;
 import com.wynntils.services.map.pois.Poi;
@@ -25,6 +26,7 @@ import java.util.ArrayList;
 import java.util.List;
 import net.minecraft.client.renderer.GameRenderer;
 import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.resources.ResourceLocation;
 import org.joml.Matrix4f;
 import org.joml.Vector2d;
 import org.joml.Vector2f;
@@ -45,9 +47,21 @@ public final class MapRenderer {
             float width,
             float height,
             float scale) {
-        VertexConsumer buffer = bufferSource.getBuffer(CustomRenderType.getMapPositionTextureQuad(map.resource()));
+        Matrix4f matrix = poseStack.last().pose();
 
-        renderMap(map, poseStack, buffer, centerX, centerZ, textureX, textureZ, width, height, scale);
+        renderMapTiles(
+                map,
+                centerX,
+                centerZ,
+                textureX,
+                textureZ,
+                width,
+                height,
+                scale,
+                (tile, x1, z1, x2, z2, u1, v1, u2, v2) -> {
+                    VertexConsumer buffer = bufferSource.getBuffer(CustomRenderType.getMapPositionTextureQuad(tile));
+                    renderQuad(matrix, buffer, x1, z1, x2, z2, u1, v1, u2, v2);
+                });
     }
 
     public static void renderMapQuad(
@@ -63,56 +77,114 @@ public final class MapRenderer {
         RenderSystem.disableBlend();
 
         RenderSystem.setShader(GameRenderer::getPositionTexShader);
-        RenderSystem.setShaderTexture(0, map.resource());
 
-        RenderSystem.texParameter(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_NEAREST);
-        RenderSystem.texParameter(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_NEAREST);
+        Matrix4f matrix = poseStack.last().pose();
+
+        renderMapTiles(
+                map,
+                centerX,
+                centerZ,
+                textureX,
+                textureZ,
+                width,
+                height,
+                scale,
+                (tile, x1, z1, x2, z2, u1, v1, u2, v2) -> {
+                    RenderSystem.setShaderTexture(0, tile);
 
-        // clamp map rendering
-        RenderSystem.texParameter(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL13.GL_CLAMP_TO_BORDER);
-        RenderSystem.texParameter(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL13.GL_CLAMP_TO_BORDER);
+                    RenderSystem.texParameter(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_NEAREST);
+                    RenderSystem.texParameter(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_NEAREST);
 
-        BufferBuilder builder = Tesselator.getInstance().getBuilder();
-        builder.begin(VertexFormat.Mode.QUADS, DefaultVertexFormat.POSITION_TEX);
+                    // clamp map rendering
+                    RenderSystem.texParameter(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL13.GL_CLAMP_TO_BORDER);
+                    RenderSystem.texParameter(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL13.GL_CLAMP_TO_BORDER);
 
-        renderMap(map, poseStack, builder, centerX, centerZ, textureX, textureZ, width, height, scale);
+                    BufferBuilder builder = Tesselator.getInstance().getBuilder();
+                    builder.begin(VertexFormat.Mode.QUADS, DefaultVertexFormat.POSITION_TEX);
 
-        BufferUploader.drawWithShader(builder.end());
+                    renderQuad(matrix, builder, x1, z1, x2, z2, u1, v1, u2, v2);
+
+                    BufferUploader.drawWithShader(builder.end());
+                });
     }
 
-    private static void renderMap(
+    // Splits the visible part of the map into the tiles of the mip level that matches the scale
+    private static void renderMapTiles(
             MapTexture map,
-            PoseStack poseStack,
-            VertexConsumer buffer,
             float centerX,
             float centerZ,
             float textureX,
             float textureZ,
             float width,
             float height,
-            float scale) {
-        float uScale = 1f / map.getTextureWidth();
-        float vScale = 1f / map.getTextureHeight();
-
-        float halfRenderedWidth = width / 2f;
-        float halfRenderedHeight = height / 2f;
-        float halfTextureWidth = halfRenderedWidth * scale;
-        float halfTextureHeight = halfRenderedHeight * scale;
-
-        Matrix4f matrix = poseStack.last().pose();
+            float scale,
+            TileRenderer renderer) {
+        float halfTextureWidth = width / 2f * scale;
+        float halfTextureHeight = height / 2f * scale;
+
+        // The visible part of the map, in texture pixels
+        float viewX1 = Math.max(0, textureX - halfTextureWidth);
+        float viewZ1 = Math.max(0, textureZ - halfTextureHeight);
+        float viewX2 = Math.min(map.getTextureWidth(), textureX + halfTextureWidth);
+        float viewZ2 = Math.min(map.getTextureHeight(), textureZ + halfTextureHeight);
+        if (viewX1 >= viewX2 || viewZ1 >= viewZ2) return;
+
+        // Scale is in GUI pixels, the level is picked so one tile pixel covers about one pixel of the window
+        int level = map.getMipLevel(scale / (float) McUtils.guiScale());
+        int span = map.getTileSpan(level);
+
+        for (int tileX = (int) (viewX1 / span); tileX * span < viewX2; tileX++) {
+            for (int tileZ = (int) (viewZ1 / span); tileZ * span < viewZ2; tileZ++) {
+                float x1 = Math.max(viewX1, tileX * span);
+                float z1 = Math.max(viewZ1, tileZ * span);
+                float x2 = Math.min(viewX2, (tileX + 1) * span);
+                float z2 = Math.min(viewZ2, (tileZ + 1) * span);
+
+                // Until the tile is loaded, the part of a coarser tile covering the same area is drawn instead.
+                // The coarsest level is always loaded, so there is something to draw as soon as possible.
+                for (int fallbackLevel = level; fallbackLevel < map.getLevels(); fallbackLevel++) {
+                    int fallbackSpan = map.getTileSpan(fallbackLevel);
+                    int fallbackX = (int) (x1 / fallbackSpan);
+                    int fallbackZ = (int) (z1 / fallbackSpan);
+
+                    boolean load = fallbackLevel == level || fallbackLevel == map.getLevels() - 1;
+                    ResourceLocation tile = Services.Map.getMapTile(map, fallbackLevel, fallbackX, fallbackZ, load);
+                    if (tile == null) continue;
+
+                    float tileStartX = fallbackX * fallbackSpan;
+                    float tileStartZ = fallbackZ * fallbackSpan;
+
+                    renderer.render(
+                            tile,
+                            centerX + (x1 - textureX) / scale,
+                            centerZ + (z1 - textureZ) / scale,
+                            centerX + (x2 - textureX) / scale,
+                            centerZ + (z2 - textureZ) / scale,
+                            (x1 - tileStartX) / fallbackSpan,
+                            (z1 - tileStartZ) / fallbackSpan,
+                            (x2 - tileStartX) / fallbackSpan,
+                            (z2 - tileStartZ) / fallbackSpan);
+                    break;
+                }
+            }
+        }
+    }
 
-        buffer.vertex(matrix, (centerX - halfRenderedWidth), (centerZ + halfRenderedHeight), 0)
-                .uv((textureX - halfTextureWidth) * uScale, (textureZ + halfTextureHeight) * vScale)
-                .endVertex();
-        buffer.vertex(matrix, (centerX + halfRenderedWidth), (centerZ + halfRenderedHeight), 0)
-                .uv((textureX + halfTextureWidth) * uScale, (textureZ + halfTextureHeight) * vScale)
-                .endVertex();
-        buffer.vertex(matrix, (centerX + halfRenderedWidth), (centerZ - halfRenderedHeight), 0)
-                .uv((textureX + halfTextureWidth) * uScale, (textureZ - halfTextureHeight) * vScale)
-                .endVertex();
-        buffer.vertex(matrix, (centerX - halfRenderedWidth), (centerZ - halfRenderedHeight), 0)
-                .uv((textureX - halfTextureWidth) * uScale, (textureZ - halfTextureHeight) * vScale)
-                .endVertex();
+    private static void renderQuad(
+            Matrix4f matrix,
+            VertexConsumer buffer,
+            float x1,
+            float z1,
+            float x2,
+            float z2,
+            float u1,
+            float v1,
+            float u2,
+            float v2) {
+        buffer.vertex(matrix, x1, z2, 0).uv(u1, v2).endVertex();
+        buffer.vertex(matrix, x2, z2, 0).uv(u2, v2).endVertex();
+        buffer.vertex(matrix, x2, z1, 0).uv(u2, v1).endVertex();
+        buffer.vertex(matrix, x1, z1, 0).uv(u1, v1).endVertex();
     }
 
     public static void renderCursor(
@@ -419,4 +491,10 @@ public final class MapRenderer {
         double distanceZ = worldZ - mapCenterZ;
         return (float) (centerZ + distanceZ * currentZoom);
     }
+
+    @FunctionalInterface
+    private interface TileRenderer {
+        void render(
+                ResourceLocation tile, float x1, float z1, float x2, float z2, float u1, float v1, float u2, float v2);
+    }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright © Wynntils 2022.
+ * Copyright © Wynntils 2022-2023.
  * This file is released under AGPLv3. See LICENSE for full license details.
  */
 package com.wynntils.utils.type;
@@ -24,6 +24,22 @@ public class BoundingBox {
         assert x1 < x2 && z1 < z2;
     }
 
+    public float getX1() {
+        return x1;
+    }
+
+    public float getZ1() {
+        return z1;
+    }
+
+    public float getX2() {
+        return x2;
+    }
+
+    public float getZ2() {
+        return z2;
+    }
+
     public boolean contains(float x, float z) {
         return x1 <= x && x <= x2 && z1 <= z && z <= z2;
     }
@@ -0,0 +1,202 @@
+/*
+ * Copyright © Wynntils 2023.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.utils.type;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * An index of patterns, that finds the patterns which could possibly be found in a string, without running them.
+ * <p>
+ * For every pattern, a literal that every match has to contain is extracted from the regex. Patterns are bucketed by
+ * the first character of their literal, so a single pass over the string is enough to find all candidates. Patterns
+ * without a usable literal are always candidates.
+ */
+public final class PatternIndex<T> {
+    private static final int BUCKET_COUNT = 128;
+    private static final String SIMPLE_ESCAPES = "dDsSwWbBhHvVRXAzZGntrfea";
+
+    private final List<T> values = new ArrayList<>();
+    private final List<String> literals = new ArrayList<>();
+    private final int[][] buckets = new int[BUCKET_COUNT][];
+    private final BitSet alwaysCandidates = new BitSet();
+
+    public void add(Pattern pattern, T value) {
+        int index = values.size();
+        String literal = getRequiredLiteral(pattern);
+
+        values.add(value);
+        literals.add(literal);
+
+        if (literal.isEmpty()) {
+            alwaysCandidates.set(index);
+            return;
+        }
+
+        int bucket = literal.charAt(0) % BUCKET_COUNT;
+        int[] indexes = buckets[bucket] == null ? new int[0] : buckets[bucket];
+        indexes = Arrays.copyOf(indexes, indexes.length + 1);
+        indexes[indexes.length - 1] = index;
+        buckets[bucket] = indexes;
+    }
+
+    /**
+     * Adds a value that is always a candidate, regardless of the string.
+     */
+    public void addUnconditional(T value) {
+        alwaysCandidates.set(values.size());
+
+        values.add(value);
+        literals.add("");
+    }
+
+    /**
+     * Returns the values whose pattern might be found in the given string, in the order they were added.
+     * Values that are not returned are guaranteed to not be found.
+     */
+    public List<T> getCandidates(String string) {
+        BitSet candidates = (BitSet) alwaysCandidates.clone();
+
+        for (int i = 0; i < string.length(); i++) {
+            int[] indexes = buckets[string.charAt(i) % BUCKET_COUNT];
+            if (indexes == null) continue;
+
+            for (int index : indexes) {
+                if (!candidates.get(index) && string.startsWith(literals.get(index), i)) {
+                    candidates.set(index);
+                }
+            }
+        }
+
+        List<T> result = new ArrayList<>(candidates.cardinality());
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            result.add(values.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the longest literal that has to be part of any match of the pattern, or an empty string if
+     * no such literal can be safely determined. Only the top level of the regex is considered, so anything inside
+     * groups, character classes or optional atoms is ignored.
+     */
+    public static String getRequiredLiteral(Pattern pattern) {
+        if (pattern.flags() != 0) return "";
+
+        String regex = pattern.pattern();
+
+        String longest = "";
+        StringBuilder current = new StringBuilder();
+        int depth = 0;
+
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+
+            switch (c) {
+                case '\\' -> {
+                    if (i + 1 >= regex.length()) return "";
+
+                    char escaped = regex.charAt(++i);
+                    if (Character.isLetterOrDigit(escaped)) {
+                        // Escapes like \p{...}, \Q...\E or back references are not worth handling
+                        if (SIMPLE_ESCAPES.indexOf(escaped) == -1) return "";
+
+                        longest = longestOf(longest, current);
+                    } else if (depth == 0) {
+                        current.append(escaped);
+                    }
+                }
+                case '[' -> {
+                    i = skipCharacterClass(regex, i);
+                    if (i == -1) return "";
+
+                    longest = longestOf(longest, current);
+                }
+                case '(' -> {
+                    // Inline flags (like case insensitivity) could change how the literal matches
+                    if (i + 2 < regex.length()
+                            && regex.charAt(i + 1) == '?'
+                            && Character.isLetter(regex.charAt(i + 2))) {
+                        return "";
+                    }
+
+                    depth++;
+                    longest = longestOf(longest, current);
+                }
+                case ')' -> {
+                    depth--;
+                    longest = longestOf(longest, current);
+                }
+                case '|' -> {
+                    if (depth == 0) return "";
+                }
+                case '?', '*', '{' -> {
+                    if (depth == 0) {
+                        // The previous atom is optional, so it can't be a part of the literal
+                        if (!current.isEmpty()) {
+                            current.setLength(current.length() - 1);
+                        }
+                        longest = longestOf(longest, current);
+                    }
+
+                    if (c == '{') {
+                        i = regex.indexOf('}', i);
+                        if (i == -1) return "";
+                    }
+                }
+                case '+', '.', '^', '$' -> {
+                    if (depth == 0) {
+                        longest = longestOf(longest, current);
+                    }
+                }
+                default -> {
+                    if (depth == 0) {
+                        current.append(c);
+                    }
+                }
+            }
+        }
+
+        longest = longestOf(longest, current);
+
+        // Formatting codes are very common, so skip them at the start to get a more selective first character
+        while (longest.length() > 2 && longest.charAt(0) == '§') {
+            longest = longest.substring(2);
+        }
+
+        return longest;
+    }
+
+    private static String longestOf(String longest, StringBuilder current) {
+        String result = current.length() > longest.length() ? current.toString() : longest;
+        current.setLength(0);
+        return result;
+    }
+
+    private static int skipCharacterClass(String regex, int start) {
+        int nesting = 0;
+
+        for (int i = start; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                nesting++;
+            } else if (c == ']') {
+                // A ']' directly after the opening bracket (or negation) is a literal
+                if (i == start + 1 || (i == start + 2 && regex.charAt(start + 1) == '^')) continue;
+
+                nesting--;
+                if (nesting == 0) return i;
+            }
+        }
+
+        return -1;
+    }
+}
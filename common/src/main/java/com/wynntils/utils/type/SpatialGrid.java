@@ -0,0 +1,106 @@
+/*
+ * Copyright © Wynntils 2023.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.utils.type;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A uniform grid of values on the X/Z plane, so values in an area can be found without checking every value.
+ * <p>
+ * Every value covers an area, which can be a single point. Values are stored in every cell their area overlaps,
+ * so the cell size should be chosen to be roughly the size of the areas that are queried. Queries return values
+ * in the order they were added.
+ */
+public final class SpatialGrid<T> {
+    private final int cellSize;
+    private final Long2ObjectMap<List<Entry<T>>> cells = new Long2ObjectOpenHashMap<>();
+    private int size = 0;
+
+    public SpatialGrid(int cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    public void add(T value, float x, float z) {
+        add(value, x, z, x, z);
+    }
+
+    public void add(T value, float x1, float z1, float x2, float z2) {
+        Entry<T> entry = new Entry<>(value, size++, x1, z1, x2, z2);
+
+        for (int cellX = getCell(x1); cellX <= getCell(x2); cellX++) {
+            for (int cellZ = getCell(z1); cellZ <= getCell(z2); cellZ++) {
+                cells.computeIfAbsent(getKey(cellX, cellZ), k -> new ArrayList<>()).add(entry);
+            }
+        }
+    }
+
+    /**
+     * Returns the values whose area overlaps the given area, including values that only touch its border.
+     */
+    public List<T> query(float x1, float z1, float x2, float z2) {
+        List<Entry<T>> found = new ArrayList<>();
+
+        long queriedCells = ((long) getCell(x2) - getCell(x1) + 1) * ((long) getCell(z2) - getCell(z1) + 1);
+        if (queriedCells > cells.size()) {
+            // The area is larger than the occupied part of the grid, so it's faster to check the occupied cells
+            for (List<Entry<T>> entries : cells.values()) {
+                addOverlapping(entries, x1, z1, x2, z2, found);
+            }
+        } else {
+            for (int cellX = getCell(x1); cellX <= getCell(x2); cellX++) {
+                for (int cellZ = getCell(z1); cellZ <= getCell(z2); cellZ++) {
+                    List<Entry<T>> entries = cells.get(getKey(cellX, cellZ));
+                    if (entries == null) continue;
+
+                    addOverlapping(entries, x1, z1, x2, z2, found);
+                }
+            }
+        }
+
+        found.sort(Comparator.comparingInt(Entry::index));
+
+        // Values with an area spanning multiple cells are found once per cell
+        List<T> result = new ArrayList<>(found.size());
+        int lastIndex = -1;
+        for (Entry<T> entry : found) {
+            if (entry.index == lastIndex) continue;
+
+            result.add(entry.value);
+            lastIndex = entry.index;
+        }
+        return result;
+    }
+
+    public List<T> query(float x, float z) {
+        return query(x, z, x, z);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static <T> void addOverlapping(
+            List<Entry<T>> entries, float x1, float z1, float x2, float z2, List<Entry<T>> found) {
+        for (Entry<T> entry : entries) {
+            if (entry.x1 <= x2 && x1 <= entry.x2 && entry.z1 <= z2 && z1 <= entry.z2) {
+                found.add(entry);
+            }
+        }
+    }
+
+    private int getCell(float coordinate) {
+        return Math.floorDiv((int) Math.floor(coordinate), cellSize);
+    }
+
+    private static long getKey(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+    private record Entry<T>(T value, int index, float x1, float z1, float x2, float z2) {}
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright © Wynntils 2023.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+package com.wynntils.utils.type;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of durations in nanoseconds, with a fixed relative precision (HDR-style).
+ * <p>
+ * Every power of two is split into 8 linear sub-buckets, so any recorded value is off by at most 12.5%
+ * when read back as a percentile. The total, count and maximum are exact. Recording never allocates.
+ */
+public final class TimingHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    // 2^40 ns is about 18 minutes, anything longer is recorded in the last bucket
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+    private final long[] buckets = new long[BUCKET_COUNT];
+    private long count = 0;
+    private long total = 0;
+    private long max = 0;
+
+    public synchronized void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+
+        buckets[getBucketIndex(nanos)]++;
+        count++;
+        total += nanos;
+        max = Math.max(max, nanos);
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getTotal() {
+        return total;
+    }
+
+    public synchronized long getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the value below which the given percentile (0-100) of recorded values fall.
+     * The result is the upper bound of the matching bucket, capped at the maximum recorded value.
+     */
+    public synchronized long getPercentile(double percentile) {
+        if (count == 0) return 0;
+
+        long target = Math.max(1, (long) Math.ceil(count * percentile / 100d));
+        long seen = 0;
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets[i];
+            if (seen >= target) {
+                // The last bucket also holds all values that are too large for the histogram
+                if (i == BUCKET_COUNT - 1) return max;
+
+                return Math.min(getBucketUpperBound(i), max);
+            }
+        }
+
+        return max;
+    }
+
+    public synchronized void reset() {
+        Arrays.fill(buckets, 0);
+        count = 0;
+        total = 0;
+        max = 0;
+    }
+
+    private static int getBucketIndex(long value) {
+        // Small values are stored exactly
+        if (value < SUB_BUCKET_COUNT) return (int) value;
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) return BUCKET_COUNT - 1;
+
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    private static long getBucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) return index;
+
+        int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKET_COUNT;
+        long bucketWidth = 1L << (exponent - SUB_BUCKET_BITS);
+
+        return (1L << exponent) + (subBucket + 1) * bucketWidth - 1;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright © Wynntils 2023.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+import com.sun.net.httpserver.HttpServer;
+import com.wynntils.core.net.Download;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TestDownload {
+    private static final String CACHED_CONTENT = "cached";
+
+    @TempDir
+    File tempDir;
+
+    private HttpServer server;
+    private HttpClient client;
+    private File localFile;
+    private File partFile;
+
+    // The status and body the stub server answers with
+    private int status;
+    private String body;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            // A 304 response must not have a body
+            exchange.sendResponseHeaders(status, status == 304 ? -1 : bytes.length);
+            if (status != 304) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+
+        client = HttpClient.newHttpClient();
+        localFile = new File(tempDir, "data.json");
+        partFile = new File(tempDir, "data.json.part");
+        Files.writeString(localFile.toPath(), CACHED_CONTENT);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void okResponse_shouldReplaceCachedFile() throws Exception {
+        HttpResponse<Path> response = request(200, "new");
+
+        Assertions.assertEquals(
+                Download.ResponseOutcome.REPLACED,
+                Download.applyResponse(response, localFile, partFile),
+                "A 200 response should replace the cached file");
+        Assertions.assertEquals("new", Files.readString(localFile.toPath()), "Cached file should have the new body");
+        Assertions.assertFalse(partFile.exists(), "Part file should be moved into place");
+    }
+
+    @Test
+    public void notModifiedResponse_shouldServeCachedFile() throws Exception {
+        HttpResponse<Path> response = request(304, "");
+
+        Assertions.assertEquals(
+                Download.ResponseOutcome.NOT_MODIFIED,
+                Download.applyResponse(response, localFile, partFile),
+                "A 304 response should keep the cached file");
+        Assertions.assertEquals(localFile.toPath(), response.body(), "A 304 response should use the cached file");
+        Assertions.assertEquals(
+                CACHED_CONTENT, Files.readString(localFile.toPath()), "Cached file should be unchanged");
+        Assertions.assertFalse(partFile.exists(), "No part file should be written");
+    }
+
+    @Test
+    public void serverError_shouldKeepCachedFile() throws Exception {
+        HttpResponse<Path> response = request(500, "Internal Server Error");
+
+        Assertions.assertEquals(
+                Download.ResponseOutcome.FAILED,
+                Download.applyResponse(response, localFile, partFile),
+                "A 500 response should not replace the cached file");
+        Assertions.assertEquals(
+                CACHED_CONTENT, Files.readString(localFile.toPath()), "Cached file should be unchanged");
+        Assertions.assertFalse(partFile.exists(), "The error body should be deleted");
+    }
+
+    private HttpResponse<Path> request(int status, String body) throws Exception {
+        this.status = status;
+        this.body = body;
+
+        URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/data.json");
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        return client.send(request, Download.getBodyHandler(localFile, partFile));
+    }
+}
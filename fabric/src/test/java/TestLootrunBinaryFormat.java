@@ -0,0 +1,93 @@
+/*
+ * Copyright © Wynntils 2023.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+import com.wynntils.services.lootrunpaths.LootrunPathFileParser;
+import com.wynntils.services.lootrunpaths.UncompiledLootrunPath;
+import com.wynntils.services.lootrunpaths.type.LootrunNote;
+import com.wynntils.services.lootrunpaths.type.LootrunPath;
+import com.wynntils.services.lootrunpaths.type.LootrunSaveResult;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.PositionImpl;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.phys.Vec3;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TestLootrunBinaryFormat {
+    @TempDir
+    File tempDir;
+
+    @BeforeAll
+    public static void setup() {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+    }
+
+    @Test
+    public void binaryLootrun_shouldRoundTripExactly() throws IOException {
+        List<Vec3> points = new ArrayList<>(List.of(
+                new Vec3(100.5, 64, -200.25),
+                // Negative deltas
+                new Vec3(99.75, 63.5, -201),
+                new Vec3(-50.125, 10, -1000.5),
+                // Large coordinates and deltas
+                new Vec3(29_999_999.5, 320, -29_999_999.5),
+                new Vec3(-29_999_999.5, -64, 29_999_999.5),
+                new Vec3(1e15, -1e15, 4.5),
+                // Values that are not a multiple of 1/4096 are stored as raw doubles
+                new Vec3(0.1, 1.0 / 3, -0.7),
+                new Vec3(0.2, 64, Math.PI)));
+
+        UncompiledLootrunPath lootrun = new UncompiledLootrunPath(
+                new LootrunPath(points),
+                Set.of(new BlockPos(10, 64, -20), new BlockPos(-30_000_000, -64, 30_000_000)),
+                List.of(new LootrunNote(new PositionImpl(-12.5, 70, 1e9), Component.literal("Note"))),
+                null);
+
+        File file = new File(tempDir, "test" + LootrunPathFileParser.BINARY_EXTENSION);
+        Assertions.assertEquals(
+                LootrunSaveResult.SAVED,
+                LootrunPathFileParser.writeBinary(lootrun, file),
+                "writeBinary() should save the lootrun");
+
+        UncompiledLootrunPath read = LootrunPathFileParser.readBinary(file);
+
+        Assertions.assertEquals(points, read.path().points(), "Points should be read back exactly");
+        Assertions.assertEquals(lootrun.chests(), read.chests(), "Chests should be read back exactly");
+
+        Assertions.assertEquals(1, read.notes().size(), "Notes should be read back");
+        LootrunNote note = read.notes().get(0);
+        Assertions.assertEquals(-12.5, note.position().x(), "Note x should be read back exactly");
+        Assertions.assertEquals(70, note.position().y(), "Note y should be read back exactly");
+        Assertions.assertEquals(1e9, note.position().z(), "Note z should be read back exactly");
+        Assertions.assertEquals(Component.literal("Note"), note.component(), "Note text should be read back");
+
+        File[] files = tempDir.listFiles();
+        Assertions.assertArrayEquals(new File[] {file}, files, "No temporary files should be left behind");
+    }
+
+    @Test
+    public void existingFile_shouldNotBeOverwritten() throws IOException {
+        File file = new File(tempDir, "existing" + LootrunPathFileParser.BINARY_EXTENSION);
+        Assertions.assertTrue(file.createNewFile(), "Test file should be created");
+
+        UncompiledLootrunPath lootrun =
+                new UncompiledLootrunPath(new LootrunPath(new ArrayList<>()), Set.of(), List.of(), null);
+
+        Assertions.assertEquals(
+                LootrunSaveResult.ERROR_ALREADY_EXISTS,
+                LootrunPathFileParser.writeBinary(lootrun, file),
+                "writeBinary() should not overwrite an existing file");
+        Assertions.assertEquals(0, file.length(), "Existing file should be unchanged");
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright © Wynntils 2023.
+ * This file is released under AGPLv3. See LICENSE for full license details.
+ */
+import com.wynntils.utils.type.PatternIndex;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TestPatternIndex {
+    @Test
+    public void plainText_shouldBeTheLiteral() {
+        assertLiteral("abc", "abc");
+        assertLiteral("^Start$", "Start");
+    }
+
+    @Test
+    public void alternation_shouldOnlyUseLiteralsOutsideOfIt() {
+        // Either side can match, so neither is required
+        assertLiteral("foo|bar", "");
+        assertLiteral("(foo|bar)baz", "baz");
+        assertLiteral("(a(b)c)d", "d");
+    }
+
+    @Test
+    public void optionalAtoms_shouldNotBePartOfTheLiteral() {
+        assertLiteral("ab?c", "a");
+        assertLiteral("x*yz", "yz");
+        assertLiteral("a{0,2}bc", "bc");
+        assertLiteral("(optional)?tail", "tail");
+    }
+
+    @Test
+    public void repeatedAtoms_shouldKeepTheirFirstOccurrence() {
+        assertLiteral("ab+c", "ab");
+        assertLiteral("a.c", "a");
+    }
+
+    @Test
+    public void escapes_shouldBeHandled() {
+        assertLiteral("\\[Info\\] (.+)", "[Info] ");
+        assertLiteral("\\d+ Soul Points", " Soul Points");
+        // Escapes that can match more than one character are not safe to skip
+        assertLiteral("\\p{L}abc", "");
+        assertLiteral("\\Qabc\\E", "");
+    }
+
+    @Test
+    public void characterClasses_shouldNotBePartOfTheLiteral() {
+        assertLiteral("[abc]def", "def");
+        assertLiteral("[]x]yz", "yz");
+        assertLiteral("[^]x]yz", "yz");
+        assertLiteral("[a[bc]]def", "def");
+    }
+
+    @Test
+    public void flags_shouldPreventALiteral() {
+        assertLiteral("(?i)hello", "");
+        Assertions.assertEquals(
+                "",
+                PatternIndex.getRequiredLiteral(Pattern.compile("hello", Pattern.CASE_INSENSITIVE)),
+                "A case insensitive pattern should not have a literal.");
+    }
+
+    @Test
+    public void formattingCodes_shouldBeSkippedAtTheStart() {
+        assertLiteral("§a§lHello", "Hello");
+    }
+
+    @Test
+    public void candidates_shouldIncludeEveryPatternThatCanMatch() {
+        PatternIndex<String> index = new PatternIndex<>();
+        index.add(Pattern.compile("\\[Info\\] (.+)"), "info");
+        index.add(Pattern.compile("foo|bar"), "alternation");
+        index.add(Pattern.compile("(optional)?tail"), "optional");
+        index.addUnconditional("unconditional");
+
+        Assertions.assertEquals(
+                List.of("info", "alternation", "unconditional"),
+                index.getCandidates("[Info] hello"),
+                "PatternIndex.getCandidates() returned unexpected candidates.");
+        Assertions.assertEquals(
+                List.of("alternation", "optional", "unconditional"),
+                index.getCandidates("a tail"),
+                "PatternIndex.getCandidates() returned unexpected candidates.");
+    }
+
+    private static void assertLiteral(String regex, String expected) {
+        Assertions.assertEquals(
+                expected,
+                PatternIndex.getRequiredLiteral(Pattern.compile(regex)),
+                "PatternIndex.getRequiredLiteral() returned an unexpected literal for " + regex);
+    }
+}
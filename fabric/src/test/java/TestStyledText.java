@@ -507,4 +507,90 @@ public class TestStyledText {
                 styledText.getString(PartStyle.StyleType.NONE),
                 "StyledText.replaceAll() returned an unexpected value.");
     }
+
+    @Test
+    public void styledText_repeatedGetStringShouldNotRebuildString() {
+        final Component component = Component.literal("a")
+                .withStyle(ChatFormatting.BOLD)
+                .append(Component.literal("bb")
+                        .withStyle(style -> style.withClickEvent(
+                                new ClickEvent(ClickEvent.Action.RUN_COMMAND, "/command"))));
+
+        StyledText styledText = StyledText.fromComponent(component);
+
+        for (PartStyle.StyleType styleType : PartStyle.StyleType.values()) {
+            Assertions.assertSame(
+                    styledText.getString(styleType),
+                    styledText.getString(styleType),
+                    "StyledText.getString(" + styleType + ") rebuilt the string.");
+        }
+    }
+
+    @Test
+    public void styledText_hashCodeShouldMatchEqualTextsAfterEventsAreAdded() {
+        final Component component = Component.literal("a")
+                .withStyle(style ->
+                        style.withClickEvent(new ClickEvent(ClickEvent.Action.RUN_COMMAND, "/command")));
+
+        StyledText first = StyledText.fromComponent(component);
+        StyledText second = StyledText.fromComponent(component);
+
+        // Calculate the hash code before the click event is registered
+        first.hashCode();
+
+        first.getString(PartStyle.StyleType.INCLUDE_EVENTS);
+        second.getString(PartStyle.StyleType.INCLUDE_EVENTS);
+
+        Assertions.assertEquals(first, second, "StyledText.equals() returned an unexpected value.");
+        Assertions.assertEquals(
+                first.hashCode(), second.hashCode(), "StyledText.hashCode() returned an unexpected value.");
+    }
+
+    @Test
+    public void nonLiteralComponentContents_shouldProduceCorrectString() {
+        final Component component = Component.literal("§aa")
+                .append(Component.translatable("wynntils.test.untranslated"))
+                .append(Component.empty().append(Component.literal("b")));
+
+        final String expected = "§aa§rwynntils.test.untranslatedb";
+
+        StyledText styledText = StyledText.fromComponent(component);
+
+        Assertions.assertEquals(
+                expected,
+                styledText.getString(PartStyle.StyleType.DEFAULT),
+                "StyledText.getString() returned an unexpected value.");
+    }
+
+    @Test
+    public void equalStyles_shouldShareInstance() {
+        StyledText first = StyledText.fromString("§7§lfirst");
+        StyledText second = StyledText.fromComponent(
+                Component.literal("second").withStyle(ChatFormatting.GRAY, ChatFormatting.BOLD));
+
+        Assertions.assertSame(
+                first.getFirstPart().getPartStyle(),
+                second.getFirstPart().getPartStyle(),
+                "Equal PartStyles were not interned.");
+        Assertions.assertSame(
+                first.getNormalized().getFirstPart().getPartStyle(),
+                first.getFirstPart().getPartStyle(),
+                "StyledText.getNormalized() did not keep the interned PartStyle.");
+    }
+
+    @Test
+    public void equalColoredStyles_shouldShareInstance() {
+        StyledText first = StyledText.fromComponent(
+                Component.literal("colored").withStyle(style -> style.withColor(0x123456)));
+        StyledText second = StyledText.fromComponent(
+                Component.literal("colored").withStyle(style -> style.withColor(0x123456)));
+
+        Assertions.assertSame(
+                first.getFirstPart().getPartStyle(),
+                second.getFirstPart().getPartStyle(),
+                "Equal PartStyles with a custom color were not interned.");
+        Assertions.assertEquals(first, second, "Equal colored StyledTexts were not equal.");
+        Assertions.assertEquals(
+                first.hashCode(), second.hashCode(), "Equal colored StyledTexts had different hash codes.");
+    }
 }